@@ -1,5 +1,10 @@
 package com.myapp.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +14,744 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Security security = new Security();
+
+    private final Gateway gateway = new Gateway();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Gateway getGateway() {
+        return gateway;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public static class Security {
+
+        private final JwtCache jwtCache = new JwtCache();
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final UserCache userCache = new UserCache();
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public UserCache getUserCache() {
+            return userCache;
+        }
+
+        public static class JwtCache {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class PasswordHashing {
+
+            /**
+             * BCrypt cost, passwords hashed with another cost are hashed again on the next successful login.
+             */
+            private int strength = 10;
+
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Maximum number of hashes waiting for a thread, beyond which requests fail fast.
+             */
+            private int queueCapacity = 200;
+
+            public int getStrength() {
+                return strength;
+            }
+
+            public void setStrength(int strength) {
+                this.strength = strength;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public static class UserCache {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 10000;
+
+            /**
+             * How long a user may be served from the cache after a change made by another instance.
+             */
+            private int timeToLiveInSeconds = 60;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getTimeToLiveInSeconds() {
+                return timeToLiveInSeconds;
+            }
+
+            public void setTimeToLiveInSeconds(int timeToLiveInSeconds) {
+                this.timeToLiveInSeconds = timeToLiveInSeconds;
+            }
+        }
+    }
+
+    public static class Gateway {
+
+        private final RateLimiting rateLimiting = new RateLimiting();
+
+        private final ApiDocs apiDocs = new ApiDocs();
+
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private final RequestCoalescing requestCoalescing = new RequestCoalescing();
+
+        private final ResponseCache responseCache = new ResponseCache();
+
+        public RateLimiting getRateLimiting() {
+            return rateLimiting;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public RequestCoalescing getRequestCoalescing() {
+            return requestCoalescing;
+        }
+
+        public ResponseCache getResponseCache() {
+            return responseCache;
+        }
+
+        public ApiDocs getApiDocs() {
+            return apiDocs;
+        }
+
+        public static class ApiDocs {
+
+            /**
+             * Serve the OpenAPI documents of all the microservices merged into a single one.
+             */
+            private boolean merged = false;
+
+            private long timeoutInSeconds = 10L;
+
+            public boolean isMerged() {
+                return merged;
+            }
+
+            public void setMerged(boolean merged) {
+                this.merged = merged;
+            }
+
+            public long getTimeoutInSeconds() {
+                return timeoutInSeconds;
+            }
+
+            public void setTimeoutInSeconds(long timeoutInSeconds) {
+                this.timeoutInSeconds = timeoutInSeconds;
+            }
+        }
+
+        public static class RateLimiting {
+
+            private boolean enabled = false;
+
+            private long limit = 100_000L;
+
+            private long durationInSeconds = 3_600L;
+
+            private long idleTimeoutInSeconds = 7_200L;
+
+            /**
+             * Limits overriding the default ones, by route ID.
+             */
+            private Map<String, Limit> routes = new HashMap<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getLimit() {
+                return limit;
+            }
+
+            public void setLimit(long limit) {
+                this.limit = limit;
+            }
+
+            public long getDurationInSeconds() {
+                return durationInSeconds;
+            }
+
+            public void setDurationInSeconds(long durationInSeconds) {
+                this.durationInSeconds = durationInSeconds;
+            }
+
+            public long getIdleTimeoutInSeconds() {
+                return idleTimeoutInSeconds;
+            }
+
+            public void setIdleTimeoutInSeconds(long idleTimeoutInSeconds) {
+                this.idleTimeoutInSeconds = idleTimeoutInSeconds;
+            }
+
+            public Map<String, Limit> getRoutes() {
+                return routes;
+            }
+
+            public void setRoutes(Map<String, Limit> routes) {
+                this.routes = routes;
+            }
+
+            /**
+             * A limit overriding the default one, whose unset fields keep the default values.
+             */
+            public static class Limit {
+
+                private Long limit;
+
+                private Long durationInSeconds;
+
+                public Long getLimit() {
+                    return limit;
+                }
+
+                public void setLimit(Long limit) {
+                    this.limit = limit;
+                }
+
+                public Long getDurationInSeconds() {
+                    return durationInSeconds;
+                }
+
+                public void setDurationInSeconds(Long durationInSeconds) {
+                    this.durationInSeconds = durationInSeconds;
+                }
+            }
+        }
+
+        public static class CircuitBreaker extends CircuitBreakerSettings {
+
+            private boolean enabled = true;
+
+            /**
+             * Settings overriding the default ones, by service ID.
+             */
+            private Map<String, CircuitBreakerOverride> services = new HashMap<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Map<String, CircuitBreakerOverride> getServices() {
+                return services;
+            }
+
+            public void setServices(Map<String, CircuitBreakerOverride> services) {
+                this.services = services;
+            }
+
+            /**
+             * Get the settings of a service: its overrides, with the default settings for the fields it does not set.
+             */
+            public CircuitBreakerSettings getSettings(String serviceId) {
+                CircuitBreakerOverride override = services.get(serviceId);
+                if (override == null) {
+                    return this;
+                }
+                CircuitBreakerSettings settings = new CircuitBreakerSettings();
+                settings.setFailureRateThreshold(Objects.requireNonNullElse(override.getFailureRateThreshold(), getFailureRateThreshold()));
+                settings.setSlidingWindowSize(Objects.requireNonNullElse(override.getSlidingWindowSize(), getSlidingWindowSize()));
+                settings.setMinimumNumberOfCalls(Objects.requireNonNullElse(override.getMinimumNumberOfCalls(), getMinimumNumberOfCalls()));
+                settings.setWaitDurationInOpenStateInSeconds(
+                    Objects.requireNonNullElse(override.getWaitDurationInOpenStateInSeconds(), getWaitDurationInOpenStateInSeconds())
+                );
+                settings.setPermittedCallsInHalfOpenState(
+                    Objects.requireNonNullElse(override.getPermittedCallsInHalfOpenState(), getPermittedCallsInHalfOpenState())
+                );
+                settings.setMaxConcurrentCalls(Objects.requireNonNullElse(override.getMaxConcurrentCalls(), getMaxConcurrentCalls()));
+                return settings;
+            }
+        }
+
+        public static class RequestCoalescing {
+
+            private boolean enabled = false;
+
+            /**
+             * Paths of the requests to coalesce, as path patterns.
+             */
+            private List<String> paths = new ArrayList<>(List.of("/services/**", "/api/**"));
+
+            /**
+             * Maximum size of a response shared between coalesced requests, larger responses are not shared.
+             */
+            private int maxBodySizeInBytes = 1_048_576;
+
+            /**
+             * Paths of the requests whose response does not depend on the user, as path patterns: those are coalesced
+             * between the users with the same authorities, and the other ones for the same user only.
+             */
+            private List<String> sharedPaths = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public int getMaxBodySizeInBytes() {
+                return maxBodySizeInBytes;
+            }
+
+            public void setMaxBodySizeInBytes(int maxBodySizeInBytes) {
+                this.maxBodySizeInBytes = maxBodySizeInBytes;
+            }
+
+            public List<String> getSharedPaths() {
+                return sharedPaths;
+            }
+
+            public void setSharedPaths(List<String> sharedPaths) {
+                this.sharedPaths = sharedPaths;
+            }
+        }
+
+        public static class ResponseCache {
+
+            private boolean enabled = false;
+
+            /**
+             * Paths of the requests whose responses can be cached, as path patterns.
+             */
+            private List<String> paths = new ArrayList<>(List.of("/services/**", "/api/**"));
+
+            /**
+             * Maximum total size of the cached responses, the least recently used ones are evicted beyond.
+             */
+            private long maxSizeInBytes = 67_108_864L;
+
+            private int maxEntrySizeInBytes = 1_048_576;
+
+            /**
+             * How long a stale response is still served while it is revalidated, unless the response says otherwise
+             * with {@code stale-while-revalidate}.
+             */
+            private long staleWhileRevalidateInSeconds = 10L;
+
+            /**
+             * Paths of the requests whose response does not depend on the user, as path patterns: their responses are
+             * served to the users with the same authorities, even when they are marked {@code private} for the other caches.
+             */
+            private List<String> sharedPaths = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public long getMaxSizeInBytes() {
+                return maxSizeInBytes;
+            }
+
+            public void setMaxSizeInBytes(long maxSizeInBytes) {
+                this.maxSizeInBytes = maxSizeInBytes;
+            }
+
+            public int getMaxEntrySizeInBytes() {
+                return maxEntrySizeInBytes;
+            }
+
+            public void setMaxEntrySizeInBytes(int maxEntrySizeInBytes) {
+                this.maxEntrySizeInBytes = maxEntrySizeInBytes;
+            }
+
+            public long getStaleWhileRevalidateInSeconds() {
+                return staleWhileRevalidateInSeconds;
+            }
+
+            public void setStaleWhileRevalidateInSeconds(long staleWhileRevalidateInSeconds) {
+                this.staleWhileRevalidateInSeconds = staleWhileRevalidateInSeconds;
+            }
+
+            public List<String> getSharedPaths() {
+                return sharedPaths;
+            }
+
+            public void setSharedPaths(List<String> sharedPaths) {
+                this.sharedPaths = sharedPaths;
+            }
+        }
+
+        public static class CircuitBreakerSettings {
+
+            /**
+             * Failure rate, in percent, from which the circuit opens.
+             */
+            private int failureRateThreshold = 50;
+
+            /**
+             * Number of the last calls on which the failure rate is computed.
+             */
+            private int slidingWindowSize = 20;
+
+            private int minimumNumberOfCalls = 10;
+
+            private long waitDurationInOpenStateInSeconds = 30L;
+
+            private int permittedCallsInHalfOpenState = 5;
+
+            /**
+             * Maximum number of concurrent calls to the service, beyond which calls are rejected.
+             */
+            private int maxConcurrentCalls = 500;
+
+            public int getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(int failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public int getSlidingWindowSize() {
+                return slidingWindowSize;
+            }
+
+            public void setSlidingWindowSize(int slidingWindowSize) {
+                this.slidingWindowSize = slidingWindowSize;
+            }
+
+            public int getMinimumNumberOfCalls() {
+                return minimumNumberOfCalls;
+            }
+
+            public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+            }
+
+            public long getWaitDurationInOpenStateInSeconds() {
+                return waitDurationInOpenStateInSeconds;
+            }
+
+            public void setWaitDurationInOpenStateInSeconds(long waitDurationInOpenStateInSeconds) {
+                this.waitDurationInOpenStateInSeconds = waitDurationInOpenStateInSeconds;
+            }
+
+            public int getPermittedCallsInHalfOpenState() {
+                return permittedCallsInHalfOpenState;
+            }
+
+            public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+                this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            }
+
+            public int getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+        }
+
+        /**
+         * Settings of a service overriding the default ones, whose unset fields keep the default values.
+         */
+        public static class CircuitBreakerOverride {
+
+            private Integer failureRateThreshold;
+
+            private Integer slidingWindowSize;
+
+            private Integer minimumNumberOfCalls;
+
+            private Long waitDurationInOpenStateInSeconds;
+
+            private Integer permittedCallsInHalfOpenState;
+
+            private Integer maxConcurrentCalls;
+
+            public Integer getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(Integer failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public Integer getSlidingWindowSize() {
+                return slidingWindowSize;
+            }
+
+            public void setSlidingWindowSize(Integer slidingWindowSize) {
+                this.slidingWindowSize = slidingWindowSize;
+            }
+
+            public Integer getMinimumNumberOfCalls() {
+                return minimumNumberOfCalls;
+            }
+
+            public void setMinimumNumberOfCalls(Integer minimumNumberOfCalls) {
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+            }
+
+            public Long getWaitDurationInOpenStateInSeconds() {
+                return waitDurationInOpenStateInSeconds;
+            }
+
+            public void setWaitDurationInOpenStateInSeconds(Long waitDurationInOpenStateInSeconds) {
+                this.waitDurationInOpenStateInSeconds = waitDurationInOpenStateInSeconds;
+            }
+
+            public Integer getPermittedCallsInHalfOpenState() {
+                return permittedCallsInHalfOpenState;
+            }
+
+            public void setPermittedCallsInHalfOpenState(Integer permittedCallsInHalfOpenState) {
+                this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            }
+
+            public Integer getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+        }
+    }
+
+    public static class UserPurge {
+
+        /**
+         * Number of not activated users deleted by each statement.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Pause between two chunks, to leave room for the other queries of the database.
+         */
+        private long pauseBetweenChunksInMillis = 200;
+
+        /**
+         * How long the other instances wait before taking over the purge of an instance that has stopped.
+         */
+        private int lockTimeoutInMinutes = 10;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getPauseBetweenChunksInMillis() {
+            return pauseBetweenChunksInMillis;
+        }
+
+        public void setPauseBetweenChunksInMillis(long pauseBetweenChunksInMillis) {
+            this.pauseBetweenChunksInMillis = pauseBetweenChunksInMillis;
+        }
+
+        public int getLockTimeoutInMinutes() {
+            return lockTimeoutInMinutes;
+        }
+
+        public void setLockTimeoutInMinutes(int lockTimeoutInMinutes) {
+            this.lockTimeoutInMinutes = lockTimeoutInMinutes;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Maximum number of emails sent through a single SMTP connection.
+         */
+        private int batchSize = 50;
+
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry of a failed email, doubled on each following retry.
+         */
+        private int initialBackoffInSeconds = 30;
+
+        private int maxBackoffInSeconds = 3600;
+
+        /**
+         * How long the other instances wait before taking over the delivery of an instance that has stopped.
+         */
+        private int lockTimeoutInMinutes = 5;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public int getInitialBackoffInSeconds() {
+            return initialBackoffInSeconds;
+        }
+
+        public void setInitialBackoffInSeconds(int initialBackoffInSeconds) {
+            this.initialBackoffInSeconds = initialBackoffInSeconds;
+        }
+
+        public int getMaxBackoffInSeconds() {
+            return maxBackoffInSeconds;
+        }
+
+        public void setMaxBackoffInSeconds(int maxBackoffInSeconds) {
+            this.maxBackoffInSeconds = maxBackoffInSeconds;
+        }
+
+        public int getLockTimeoutInMinutes() {
+            return lockTimeoutInMinutes;
+        }
+
+        public void setLockTimeoutInMinutes(int lockTimeoutInMinutes) {
+            this.lockTimeoutInMinutes = lockTimeoutInMinutes;
+        }
+    }
+
+    public static class LoggingAspect {
+
+        /**
+         * Time the repositories, services and REST endpoints outside the "dev" profile too.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the calls whose arguments and result are logged, when their logger is at debug level.
+         */
+        private double argumentSampleRate = 1.0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getArgumentSampleRate() {
+            return argumentSampleRate;
+        }
+
+        public void setArgumentSampleRate(double argumentSampleRate) {
+            this.argumentSampleRate = argumentSampleRate;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.myapp.config;
+
+import com.myapp.config.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Use the {@link com.myapp.config.loadbalancer.LatencyAwareLoadBalancer} for all the {@code lb://} calls of the gateway,
+ * instead of the default round-robin.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfiguration {}
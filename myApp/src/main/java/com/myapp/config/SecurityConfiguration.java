@@ -3,9 +3,14 @@ package com.myapp.config;
 import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
 import com.myapp.security.AuthoritiesConstants;
+import com.myapp.security.MeteredBCryptPasswordEncoder;
+import com.myapp.security.PasswordHashingBusyException;
+import com.myapp.security.PasswordHashingExecutor;
 import com.myapp.security.jwt.JWTFilter;
 import com.myapp.security.jwt.TokenProvider;
 import com.myapp.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -15,8 +20,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
@@ -32,27 +37,43 @@ public class SecurityConfiguration {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final ApplicationProperties applicationProperties;
+
     private final ReactiveUserDetailsService userDetailsService;
 
+    private final ReactiveUserDetailsPasswordService userDetailsPasswordService;
+
     private final TokenProvider tokenProvider;
 
     private final SecurityProblemSupport problemSupport;
 
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final MeterRegistry meterRegistry;
+
     public SecurityConfiguration(
         ReactiveUserDetailsService userDetailsService,
+        ReactiveUserDetailsPasswordService userDetailsPasswordService,
         TokenProvider tokenProvider,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        ApplicationProperties applicationProperties,
+        SecurityProblemSupport problemSupport,
+        PasswordHashingExecutor passwordHashingExecutor,
+        MeterRegistry meterRegistry
     ) {
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
         this.tokenProvider = tokenProvider;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
         this.problemSupport = problemSupport;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new MeteredBCryptPasswordEncoder(applicationProperties.getSecurity().getPasswordHashing().getStrength(), meterRegistry);
     }
 
     @Bean
@@ -61,7 +82,13 @@ public class SecurityConfiguration {
             userDetailsService
         );
         authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+        // verify the passwords on the password hashing threads, and hash them again if the strength has changed
+        authenticationManager.setScheduler(passwordHashingExecutor.getScheduler());
+        authenticationManager.setUserDetailsPasswordService(userDetailsPasswordService);
+        return authentication ->
+            authenticationManager
+                .authenticate(authentication)
+                .onErrorMap(RejectedExecutionException.class, PasswordHashingBusyException::new);
     }
 
     @Bean
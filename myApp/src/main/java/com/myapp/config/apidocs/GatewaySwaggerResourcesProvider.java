@@ -1,22 +1,37 @@
 package com.myapp.config.apidocs;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.myapp.config.ApplicationProperties;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import reactor.core.scheduler.Schedulers;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import springfox.documentation.swagger.web.SwaggerResource;
 import springfox.documentation.swagger.web.SwaggerResourcesProvider;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Retrieves all registered microservices Swagger resources.
+ * <p>
+ * The list of microservices is a snapshot of the routes, refreshed in the background when the routes are refreshed -
+ * which the discovery locator does on every discovery update - so listing the resources never waits for the routes.
  */
 @Component
 @Primary
@@ -24,6 +39,16 @@ import tech.jhipster.config.JHipsterConstants;
 @Configuration
 public class GatewaySwaggerResourcesProvider implements SwaggerResourcesProvider {
 
+    public static final String MERGED_API_DOCS_LOCATION = "/api/gateway/api-docs";
+
+    private static final Logger log = LoggerFactory.getLogger(GatewaySwaggerResourcesProvider.class);
+
+    private static final Duration ROUTES_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String SCHEMA_REFERENCE_PREFIX = "#/components/schemas/";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     @Value("${eureka.instance.appname:myapp}")
     private String gatewayName;
 
@@ -32,9 +57,25 @@ public class GatewaySwaggerResourcesProvider implements SwaggerResourcesProvider
     @Qualifier("swaggerResources")
     private final SwaggerResourcesProvider swaggerResourcesProvider;
 
-    public GatewaySwaggerResourcesProvider(RouteLocator routeLocator, SwaggerResourcesProvider swaggerResourcesProvider) {
+    private final ApplicationProperties.Gateway.ApiDocs apiDocsProperties;
+
+    private final WebClient webClient;
+
+    private volatile List<String> microservices = Collections.emptyList();
+
+    private volatile Mono<ObjectNode> mergedApiDocs;
+
+    public GatewaySwaggerResourcesProvider(
+        RouteLocator routeLocator,
+        SwaggerResourcesProvider swaggerResourcesProvider,
+        ApplicationProperties applicationProperties,
+        WebClient.Builder webClientBuilder,
+        ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction
+    ) {
         this.routeLocator = routeLocator;
         this.swaggerResourcesProvider = swaggerResourcesProvider;
+        this.apiDocsProperties = applicationProperties.getGateway().getApiDocs();
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
     }
 
     @Override
@@ -43,21 +84,124 @@ public class GatewaySwaggerResourcesProvider implements SwaggerResourcesProvider
 
         swaggerResources.add(swaggerResource(gatewayName.concat(" (default)"), "/v3/api-docs"));
         swaggerResources.add(swaggerResource(gatewayName.concat(" (management)"), "/v3/api-docs?group=management"));
+        if (apiDocsProperties.isMerged()) {
+            swaggerResources.add(swaggerResource("all (merged)", MERGED_API_DOCS_LOCATION));
+        }
+
+        microservices.forEach(microservice -> swaggerResources.add(swaggerResource(microservice, getMicroserviceApiDocs(microservice))));
+        return swaggerResources;
+    }
 
-        List<String> microservices = routeLocator
+    /**
+     * Refresh the snapshot of the microservices in the background, and drop the merged document.
+     */
+    @EventListener({ ApplicationReadyEvent.class, RefreshRoutesResultEvent.class })
+    public void refreshMicroservices() {
+        routeLocator
             .getRoutes()
             .map(this::getMicroserviceName)
-            .collectList()
-            .defaultIfEmpty(Collections.emptyList())
-            .subscribeOn(Schedulers.boundedElastic())
-            .toFuture()
-            .orTimeout(10, TimeUnit.SECONDS)
-            .join();
-        microservices
-            .stream()
             .filter(this::isNotGateway)
-            .forEach(microservice -> swaggerResources.add(swaggerResource(microservice, getMicroserviceApiDocs(microservice))));
-        return swaggerResources;
+            .distinct()
+            .collectList()
+            .timeout(ROUTES_TIMEOUT)
+            .subscribe(
+                names -> {
+                    if (!names.equals(microservices)) {
+                        microservices = Collections.unmodifiableList(names);
+                        mergedApiDocs = null;
+                    }
+                },
+                error -> log.warn("Could not refresh the microservices Swagger resources: {}", error.getMessage())
+            );
+    }
+
+    /**
+     * Get the OpenAPI documents of all the microservices merged into a single one, built once and cached until the
+     * microservices change.
+     * <p>
+     * Paths are prefixed with the route of their microservice, and schemas with the name of their microservice.
+     *
+     * @return the merged document, or an empty {@link Mono} if it is disabled.
+     */
+    public Mono<ObjectNode> getMergedApiDocs() {
+        if (!apiDocsProperties.isMerged()) {
+            return Mono.empty();
+        }
+        Mono<ObjectNode> result = mergedApiDocs;
+        if (result != null) {
+            return result;
+        }
+        List<String> names = microservices;
+        return mergeApiDocs(names)
+            .doOnNext(
+                merged -> {
+                    // keep the document unless the microservices have changed meanwhile, or none of them answered
+                    if (names == microservices && !merged.isEmpty()) {
+                        mergedApiDocs = Mono.just(merged);
+                    }
+                }
+            );
+    }
+
+    private Mono<ObjectNode> mergeApiDocs(List<String> names) {
+        return Flux
+            .fromIterable(names)
+            .flatMapSequential(
+                name ->
+                    webClient
+                        .get()
+                        .uri("lb://" + name + "/v3/api-docs")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .timeout(Duration.ofSeconds(apiDocsProperties.getTimeoutInSeconds()))
+                        .map(document -> Map.entry(name, document))
+                        .onErrorResume(
+                            error -> {
+                                log.warn("Could not get the API documentation of {}: {}", name, error.getMessage());
+                                return Mono.empty();
+                            }
+                        )
+            )
+            .collectList()
+            .map(this::merge);
+    }
+
+    private ObjectNode merge(List<Map.Entry<String, JsonNode>> documents) {
+        ObjectNode merged = mapper.createObjectNode();
+        if (documents.isEmpty()) {
+            return merged;
+        }
+        merged.put("openapi", documents.get(0).getValue().path("openapi").asText("3.0.1"));
+        merged.putObject("info").put("title", gatewayName + " (merged)").put("version", "");
+        ObjectNode paths = merged.putObject("paths");
+        ObjectNode schemas = merged.putObject("components").putObject("schemas");
+        for (Map.Entry<String, JsonNode> document : documents) {
+            String name = document.getKey();
+            String schemaPrefix = name + "_";
+            prefixSchemaReferences(document.getValue(), schemaPrefix);
+            String pathPrefix = getMicroserviceApiDocs(name).replace("/v3/api-docs", "");
+            document.getValue().path("paths").fields().forEachRemaining(path -> paths.set(pathPrefix + path.getKey(), path.getValue()));
+            document
+                .getValue()
+                .path("components")
+                .path("schemas")
+                .fields()
+                .forEachRemaining(schema -> schemas.set(schemaPrefix + schema.getKey(), schema.getValue()));
+        }
+        return merged;
+    }
+
+    private static void prefixSchemaReferences(JsonNode node, String prefix) {
+        if (node.isObject()) {
+            JsonNode reference = node.get("$ref");
+            if (reference != null && reference.isTextual() && reference.asText().startsWith(SCHEMA_REFERENCE_PREFIX)) {
+                String schema = reference.asText().substring(SCHEMA_REFERENCE_PREFIX.length());
+                ((ObjectNode) node).put("$ref", SCHEMA_REFERENCE_PREFIX + prefix + schema);
+            }
+        }
+        if (node.isContainerNode()) {
+            node.forEach(child -> prefixSchemaReferences(child, prefix));
+        }
     }
 
     public static SwaggerResource swaggerResource(String name, String location) {
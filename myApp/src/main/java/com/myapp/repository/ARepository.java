@@ -1,6 +1,7 @@
 package com.myapp.repository;
 
 import com.myapp.domain.A;
+import com.myapp.service.EntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -35,4 +36,5 @@ interface ARepositoryInternal {
     Mono<A> findById(Long id);
     Flux<A> findAllBy(Pageable pageable);
     Flux<A> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<A> findAllBy(EntityManager.Keyset keyset);
 }
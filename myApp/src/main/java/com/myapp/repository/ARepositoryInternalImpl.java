@@ -1,6 +1,5 @@
 package com.myapp.repository;
 
-import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
 import com.myapp.domain.A;
@@ -41,6 +40,8 @@ class ARepositoryInternalImpl implements ARepositoryInternal {
 
     private static final Table entityTable = Table.aliased("a", EntityManager.ENTITY_ALIAS);
 
+    private static final String JOIN_SHAPE = "none";
+
     public ARepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, ARowMapper aMapper) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
@@ -55,14 +56,15 @@ class ARepositoryInternalImpl implements ARepositoryInternal {
 
     @Override
     public Flux<A> findAllBy(Pageable pageable, Criteria criteria) {
+        if (criteria == null) {
+            String select = entityManager.createSelectTemplate(A.class, JOIN_SHAPE, pageable, this::createSelectFrom);
+            return entityManager.bindPage(db.sql(select), pageable).map(this::process).all();
+        }
         return createQuery(pageable, criteria).all();
     }
 
     RowsFetchSpec<A> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = ASqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, A.class, pageable, criteria);
+        String select = entityManager.createSelect(createSelectFrom(), A.class, pageable, criteria);
         String alias = entityTable.getReferenceName().getReference();
         String selectWhere = Optional
             .ofNullable(criteria)
@@ -81,6 +83,17 @@ class ARepositoryInternalImpl implements ARepositoryInternal {
         return db.sql(selectWhere).map(this::process);
     }
 
+    @Override
+    public Flux<A> findAllBy(EntityManager.Keyset keyset) {
+        String select = entityManager.createKeysetSelect(createSelectFrom(), A.class, keyset);
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = ASqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<A> findAll() {
         return findAllBy(null, null);
@@ -88,11 +101,12 @@ class ARepositoryInternalImpl implements ARepositoryInternal {
 
     @Override
     public Mono<A> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
+        String select = entityManager.createSelectByIdTemplate(A.class, JOIN_SHAPE, this::createSelectFrom);
+        return db.sql(select).bind(EntityManager.ID_PARAMETER, id).map(this::process).one();
     }
 
     private A process(Row row, RowMetadata metadata) {
-        A entity = aMapper.apply(row, "e");
+        A entity = aMapper.apply(row, metadata, "e");
         return entity;
     }
 
@@ -1,6 +1,8 @@
 package com.myapp.repository;
 
 import com.myapp.domain.B;
+import com.myapp.service.EntityManager;
+import java.util.Collection;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -18,6 +20,9 @@ public interface BRepository extends R2dbcRepository<B, Long>, BRepositoryIntern
     @Query("SELECT * FROM b entity WHERE entity.aa_id = :id")
     Flux<B> findByA(Long id);
 
+    @Query("SELECT * FROM b entity WHERE entity.aa_id IN (:ids)")
+    Flux<B> findByAIn(Collection<Long> ids);
+
     @Query("SELECT * FROM b entity WHERE entity.aa_id IS NULL")
     Flux<B> findAllWhereAIsNull();
 
@@ -41,4 +46,5 @@ interface BRepositoryInternal {
     Mono<B> findById(Long id);
     Flux<B> findAllBy(Pageable pageable);
     Flux<B> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<B> findAllBy(EntityManager.Keyset keyset);
 }
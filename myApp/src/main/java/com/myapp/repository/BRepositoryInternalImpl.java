@@ -1,6 +1,5 @@
 package com.myapp.repository;
 
-import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
 import com.myapp.domain.B;
@@ -44,6 +43,8 @@ class BRepositoryInternalImpl implements BRepositoryInternal {
     private static final Table entityTable = Table.aliased("b", EntityManager.ENTITY_ALIAS);
     private static final Table aTable = Table.aliased("a", "a");
 
+    private static final String JOIN_SHAPE = "a";
+
     public BRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, ARowMapper aMapper, BRowMapper bMapper) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
@@ -59,21 +60,15 @@ class BRepositoryInternalImpl implements BRepositoryInternal {
 
     @Override
     public Flux<B> findAllBy(Pageable pageable, Criteria criteria) {
+        if (criteria == null) {
+            String select = entityManager.createSelectTemplate(B.class, JOIN_SHAPE, pageable, this::createSelectFrom);
+            return entityManager.bindPage(db.sql(select), pageable).map(this::process).all();
+        }
         return createQuery(pageable, criteria).all();
     }
 
     RowsFetchSpec<B> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = BSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        columns.addAll(ASqlHelper.getColumns(aTable, "a"));
-        SelectFromAndJoinCondition selectFrom = Select
-            .builder()
-            .select(columns)
-            .from(entityTable)
-            .leftOuterJoin(aTable)
-            .on(Column.create("aa_id", entityTable))
-            .equals(Column.create("id", aTable));
-
-        String select = entityManager.createSelect(selectFrom, B.class, pageable, criteria);
+        String select = entityManager.createSelect(createSelectFrom(), B.class, pageable, criteria);
         String alias = entityTable.getReferenceName().getReference();
         String selectWhere = Optional
             .ofNullable(criteria)
@@ -92,6 +87,24 @@ class BRepositoryInternalImpl implements BRepositoryInternal {
         return db.sql(selectWhere).map(this::process);
     }
 
+    @Override
+    public Flux<B> findAllBy(EntityManager.Keyset keyset) {
+        String select = entityManager.createKeysetSelect(createSelectFrom(), B.class, keyset);
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
+        List<Expression> columns = BSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(ASqlHelper.getColumns(aTable, "a"));
+        return Select
+            .builder()
+            .select(columns)
+            .from(entityTable)
+            .leftOuterJoin(aTable)
+            .on(Column.create("aa_id", entityTable))
+            .equals(Column.create("id", aTable));
+    }
+
     @Override
     public Flux<B> findAll() {
         return findAllBy(null, null);
@@ -99,12 +112,13 @@ class BRepositoryInternalImpl implements BRepositoryInternal {
 
     @Override
     public Mono<B> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
+        String select = entityManager.createSelectByIdTemplate(B.class, JOIN_SHAPE, this::createSelectFrom);
+        return db.sql(select).bind(EntityManager.ID_PARAMETER, id).map(this::process).one();
     }
 
     private B process(Row row, RowMetadata metadata) {
-        B entity = bMapper.apply(row, "e");
-        entity.setA(aMapper.apply(row, "a"));
+        B entity = bMapper.apply(row, metadata, "e");
+        entity.setA(aMapper.apply(row, metadata, "a"));
         return entity;
     }
 
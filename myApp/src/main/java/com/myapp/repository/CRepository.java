@@ -1,6 +1,7 @@
 package com.myapp.repository;
 
 import com.myapp.domain.C;
+import com.myapp.service.EntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -35,4 +36,5 @@ interface CRepositoryInternal {
     Mono<C> findById(Long id);
     Flux<C> findAllBy(Pageable pageable);
     Flux<C> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<C> findAllBy(EntityManager.Keyset keyset);
 }
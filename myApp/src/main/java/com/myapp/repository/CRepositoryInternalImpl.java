@@ -1,6 +1,5 @@
 package com.myapp.repository;
 
-import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
 import com.myapp.domain.C;
@@ -41,6 +40,8 @@ class CRepositoryInternalImpl implements CRepositoryInternal {
 
     private static final Table entityTable = Table.aliased("c", EntityManager.ENTITY_ALIAS);
 
+    private static final String JOIN_SHAPE = "none";
+
     public CRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, CRowMapper cMapper) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
@@ -55,14 +56,15 @@ class CRepositoryInternalImpl implements CRepositoryInternal {
 
     @Override
     public Flux<C> findAllBy(Pageable pageable, Criteria criteria) {
+        if (criteria == null) {
+            String select = entityManager.createSelectTemplate(C.class, JOIN_SHAPE, pageable, this::createSelectFrom);
+            return entityManager.bindPage(db.sql(select), pageable).map(this::process).all();
+        }
         return createQuery(pageable, criteria).all();
     }
 
     RowsFetchSpec<C> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = CSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, C.class, pageable, criteria);
+        String select = entityManager.createSelect(createSelectFrom(), C.class, pageable, criteria);
         String alias = entityTable.getReferenceName().getReference();
         String selectWhere = Optional
             .ofNullable(criteria)
@@ -81,6 +83,17 @@ class CRepositoryInternalImpl implements CRepositoryInternal {
         return db.sql(selectWhere).map(this::process);
     }
 
+    @Override
+    public Flux<C> findAllBy(EntityManager.Keyset keyset) {
+        String select = entityManager.createKeysetSelect(createSelectFrom(), C.class, keyset);
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = CSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<C> findAll() {
         return findAllBy(null, null);
@@ -88,11 +101,12 @@ class CRepositoryInternalImpl implements CRepositoryInternal {
 
     @Override
     public Mono<C> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
+        String select = entityManager.createSelectByIdTemplate(C.class, JOIN_SHAPE, this::createSelectFrom);
+        return db.sql(select).bind(EntityManager.ID_PARAMETER, id).map(this::process).one();
     }
 
     private C process(Row row, RowMetadata metadata) {
-        C entity = cMapper.apply(row, "e");
+        C entity = cMapper.apply(row, metadata, "e");
         return entity;
     }
 
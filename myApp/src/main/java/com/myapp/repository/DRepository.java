@@ -1,6 +1,7 @@
 package com.myapp.repository;
 
 import com.myapp.domain.D;
+import com.myapp.service.EntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -35,4 +36,5 @@ interface DRepositoryInternal {
     Mono<D> findById(Long id);
     Flux<D> findAllBy(Pageable pageable);
     Flux<D> findAllBy(Pageable pageable, Criteria criteria);
+    Flux<D> findAllBy(EntityManager.Keyset keyset);
 }
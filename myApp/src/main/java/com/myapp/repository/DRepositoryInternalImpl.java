@@ -1,6 +1,5 @@
 package com.myapp.repository;
 
-import static org.springframework.data.relational.core.query.Criteria.where;
 import static org.springframework.data.relational.core.query.Query.query;
 
 import com.myapp.domain.D;
@@ -41,6 +40,8 @@ class DRepositoryInternalImpl implements DRepositoryInternal {
 
     private static final Table entityTable = Table.aliased("d", EntityManager.ENTITY_ALIAS);
 
+    private static final String JOIN_SHAPE = "none";
+
     public DRepositoryInternalImpl(R2dbcEntityTemplate template, EntityManager entityManager, DRowMapper dMapper) {
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
@@ -55,14 +56,15 @@ class DRepositoryInternalImpl implements DRepositoryInternal {
 
     @Override
     public Flux<D> findAllBy(Pageable pageable, Criteria criteria) {
+        if (criteria == null) {
+            String select = entityManager.createSelectTemplate(D.class, JOIN_SHAPE, pageable, this::createSelectFrom);
+            return entityManager.bindPage(db.sql(select), pageable).map(this::process).all();
+        }
         return createQuery(pageable, criteria).all();
     }
 
     RowsFetchSpec<D> createQuery(Pageable pageable, Criteria criteria) {
-        List<Expression> columns = DSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-
-        String select = entityManager.createSelect(selectFrom, D.class, pageable, criteria);
+        String select = entityManager.createSelect(createSelectFrom(), D.class, pageable, criteria);
         String alias = entityTable.getReferenceName().getReference();
         String selectWhere = Optional
             .ofNullable(criteria)
@@ -81,6 +83,17 @@ class DRepositoryInternalImpl implements DRepositoryInternal {
         return db.sql(selectWhere).map(this::process);
     }
 
+    @Override
+    public Flux<D> findAllBy(EntityManager.Keyset keyset) {
+        String select = entityManager.createKeysetSelect(createSelectFrom(), D.class, keyset);
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = DSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<D> findAll() {
         return findAllBy(null, null);
@@ -88,11 +101,12 @@ class DRepositoryInternalImpl implements DRepositoryInternal {
 
     @Override
     public Mono<D> findById(Long id) {
-        return createQuery(null, where("id").is(id)).one();
+        String select = entityManager.createSelectByIdTemplate(D.class, JOIN_SHAPE, this::createSelectFrom);
+        return db.sql(select).bind(EntityManager.ID_PARAMETER, id).map(this::process).one();
     }
 
     private D process(Row row, RowMetadata metadata) {
-        D entity = dMapper.apply(row, "e");
+        D entity = dMapper.apply(row, metadata, "e");
         return entity;
     }
 
@@ -0,0 +1,63 @@
+package com.myapp.repository;
+
+import java.time.LocalDateTime;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository for the locks of the scheduled jobs, so that a job runs on a single instance at a time.
+ * <p>
+ * A lock is a lease: it is held until a given time, after which another instance may take it over if its holder has
+ * stopped without releasing it. The row of each job is created by Liquibase.
+ */
+@Repository
+public class JobLockRepository {
+
+    private final DatabaseClient db;
+
+    public JobLockRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /**
+     * Take the lock of a job, or extend it if it is already held by the same owner.
+     *
+     * @param name the name of the job.
+     * @param owner the unique ID of the instance taking the lock.
+     * @param now the current time, in UTC.
+     * @param lockedUntil the time until which the lock is held, in UTC.
+     * @return {@code true} if the lock is held by the owner, {@code false} if it is held by another instance.
+     */
+    public Mono<Boolean> lock(String name, String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        return db
+            .sql(
+                "UPDATE jhi_job_lock SET locked_until = :lockedUntil, locked_by = :owner " +
+                "WHERE name = :name AND (locked_until < :now OR locked_by = :owner)"
+            )
+            .bind("lockedUntil", lockedUntil)
+            .bind("owner", owner)
+            .bind("name", name)
+            .bind("now", now)
+            .fetch()
+            .rowsUpdated()
+            .map(count -> count > 0);
+    }
+
+    /**
+     * Release the lock of a job, if it is still held by the given owner.
+     *
+     * @param name the name of the job.
+     * @param owner the unique ID of the instance holding the lock.
+     * @param now the current time, in UTC.
+     * @return a completed {@link Mono}.
+     */
+    public Mono<Void> unlock(String name, String owner, LocalDateTime now) {
+        return db
+            .sql("UPDATE jhi_job_lock SET locked_until = :now, locked_by = NULL WHERE name = :name AND locked_by = :owner")
+            .bind("now", now)
+            .bind("name", name)
+            .bind("owner", owner)
+            .then();
+    }
+}
@@ -0,0 +1,25 @@
+package com.myapp.repository;
+
+import com.myapp.domain.MailOutboxEntry;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link MailOutboxEntry} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends R2dbcRepository<MailOutboxEntry, Long> {
+    @Query("SELECT * FROM jhi_mail_outbox WHERE failed = false AND next_attempt_date <= :dateTime ORDER BY id LIMIT :limit")
+    Flux<MailOutboxEntry> findDueEntries(LocalDateTime dateTime, int limit);
+
+    @Query("SELECT COUNT(*) FROM jhi_mail_outbox WHERE failed = false")
+    Mono<Long> countPending();
+
+    @Query("DELETE FROM jhi_mail_outbox WHERE id IN (:ids)")
+    Mono<Void> deleteByIdIn(Collection<Long> ids);
+}
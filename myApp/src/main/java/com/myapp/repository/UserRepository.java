@@ -7,16 +7,23 @@ import com.myapp.domain.Authority;
 import com.myapp.domain.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
@@ -36,6 +43,12 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
     Flux<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(LocalDateTime dateTime);
 
+    @Query(
+        "SELECT id FROM jhi_user WHERE activated = false AND activation_key IS NOT NULL AND created_date < :dateTime " +
+        "ORDER BY id LIMIT :limit"
+    )
+    Flux<Long> findIdsByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(LocalDateTime dateTime, int limit);
+
     Mono<User> findOneByResetKey(String resetKey);
 
     Mono<User> findOneByEmailIgnoreCase(String email);
@@ -56,6 +69,17 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
     @Query("DELETE FROM jhi_user_authority WHERE user_id = :userId")
     Mono<Void> deleteUserAuthorities(Long userId);
+
+    // Users activated meanwhile are kept
+    @Query("DELETE FROM jhi_user_authority WHERE user_id IN (SELECT id FROM jhi_user WHERE id IN (:userIds) AND activated = false)")
+    Mono<Void> deleteNotActivatedUserAuthorities(Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM jhi_user WHERE id IN (:userIds) AND activated = false")
+    Mono<Integer> deleteNotActivatedUsers(Collection<Long> userIds);
+
+    @Query("UPDATE jhi_user SET password_hash = :password WHERE login = :login")
+    Mono<Void> updatePassword(String login, String password);
 }
 
 interface DeleteExtended<T> {
@@ -72,6 +96,20 @@ interface UserRepositoryInternal extends DeleteExtended<User> {
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate"
+    );
+
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
@@ -94,27 +132,20 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().get();
-        String direction = String.valueOf(pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().get());
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
-
-        return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map(
-                (row, metadata) ->
-                    Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+        Sort sort = Sort.by(
+            pageable.getSort().stream().filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty())).collect(Collectors.toList())
+        );
+        // Always end with the primary key, so that pages are stable when the sorted column has duplicates
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Pageable page = pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : Pageable.unpaged();
+        return r2dbcEntityTemplate
+            .select(User.class)
+            .matching(query(Criteria.empty()).sort(sort).with(page))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .collectList()
+            .flatMapMany(users -> users.isEmpty() ? Flux.empty() : withAuthorities(users));
     }
 
     @Override
@@ -140,6 +171,30 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .map(l -> updateUserWithAuthorities(l.get(0).getT1(), l));
     }
 
+    /**
+     * Load the authorities of a page of users with a single query, keeping the order of the page.
+     */
+    private Flux<User> withAuthorities(List<User> users) {
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : users) {
+            user.setAuthorities(new HashSet<>());
+            usersById.put(user.getId(), user);
+        }
+        return db
+            .sql("SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (:userIds)")
+            .bind("userIds", new ArrayList<>(usersById.keySet()))
+            .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
+            .all()
+            .doOnNext(
+                t -> {
+                    Authority authority = new Authority();
+                    authority.setName(t.getT2());
+                    usersById.get(t.getT1()).getAuthorities().add(authority);
+                }
+            )
+            .thenMany(Flux.fromIterable(users));
+    }
+
     private User updateUserWithAuthorities(User user, List<Tuple2<User, Optional<String>>> tuples) {
         user.setAuthorities(
             tuples
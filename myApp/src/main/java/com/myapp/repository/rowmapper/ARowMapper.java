@@ -3,29 +3,31 @@ package com.myapp.repository.rowmapper;
 import com.myapp.domain.A;
 import com.myapp.service.ColumnConverter;
 import io.r2dbc.spi.Row;
-import java.util.function.BiFunction;
+import io.r2dbc.spi.RowMetadata;
 import org.springframework.stereotype.Service;
 
 /**
  * Converter between {@link Row} to {@link A}, with proper type conversions.
  */
 @Service
-public class ARowMapper implements BiFunction<Row, String, A> {
+public class ARowMapper {
 
-    private final ColumnConverter converter;
+    private final RowMapping mapping;
+    private final RowMapping.Column<Long> id;
 
     public ARowMapper(ColumnConverter converter) {
-        this.converter = converter;
+        this.mapping = new RowMapping(converter);
+        this.id = mapping.column("id", Long.class);
     }
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
      * @return the {@link A} stored in the database.
      */
-    @Override
-    public A apply(Row row, String prefix) {
+    public A apply(Row row, RowMetadata metadata, String prefix) {
+        RowMapping.Layout layout = mapping.layout(metadata, prefix);
         A entity = new A();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
+        entity.setId(layout.get(row, id));
         return entity;
     }
 }
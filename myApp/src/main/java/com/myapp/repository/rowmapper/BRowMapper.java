@@ -3,30 +3,34 @@ package com.myapp.repository.rowmapper;
 import com.myapp.domain.B;
 import com.myapp.service.ColumnConverter;
 import io.r2dbc.spi.Row;
-import java.util.function.BiFunction;
+import io.r2dbc.spi.RowMetadata;
 import org.springframework.stereotype.Service;
 
 /**
  * Converter between {@link Row} to {@link B}, with proper type conversions.
  */
 @Service
-public class BRowMapper implements BiFunction<Row, String, B> {
+public class BRowMapper {
 
-    private final ColumnConverter converter;
+    private final RowMapping mapping;
+    private final RowMapping.Column<Long> id;
+    private final RowMapping.Column<Long> aId;
 
     public BRowMapper(ColumnConverter converter) {
-        this.converter = converter;
+        this.mapping = new RowMapping(converter);
+        this.id = mapping.column("id", Long.class);
+        this.aId = mapping.column("aa_id", Long.class);
     }
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
      * @return the {@link B} stored in the database.
      */
-    @Override
-    public B apply(Row row, String prefix) {
+    public B apply(Row row, RowMetadata metadata, String prefix) {
+        RowMapping.Layout layout = mapping.layout(metadata, prefix);
         B entity = new B();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setAId(converter.fromRow(row, prefix + "_aa_id", Long.class));
+        entity.setId(layout.get(row, id));
+        entity.setAId(layout.get(row, aId));
         return entity;
     }
 }
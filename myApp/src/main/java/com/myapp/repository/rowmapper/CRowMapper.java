@@ -3,29 +3,31 @@ package com.myapp.repository.rowmapper;
 import com.myapp.domain.C;
 import com.myapp.service.ColumnConverter;
 import io.r2dbc.spi.Row;
-import java.util.function.BiFunction;
+import io.r2dbc.spi.RowMetadata;
 import org.springframework.stereotype.Service;
 
 /**
  * Converter between {@link Row} to {@link C}, with proper type conversions.
  */
 @Service
-public class CRowMapper implements BiFunction<Row, String, C> {
+public class CRowMapper {
 
-    private final ColumnConverter converter;
+    private final RowMapping mapping;
+    private final RowMapping.Column<Long> id;
 
     public CRowMapper(ColumnConverter converter) {
-        this.converter = converter;
+        this.mapping = new RowMapping(converter);
+        this.id = mapping.column("id", Long.class);
     }
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
      * @return the {@link C} stored in the database.
      */
-    @Override
-    public C apply(Row row, String prefix) {
+    public C apply(Row row, RowMetadata metadata, String prefix) {
+        RowMapping.Layout layout = mapping.layout(metadata, prefix);
         C entity = new C();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
+        entity.setId(layout.get(row, id));
         return entity;
     }
 }
@@ -0,0 +1,156 @@
+package com.myapp.repository.rowmapper;
+
+import com.myapp.service.ColumnConverter;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The columns read by a row mapper, compiled once per {@link RowMetadata} shape and column prefix into column indexes and
+ * readers, so that mapping a row neither builds column names nor relies on exceptions to find the right conversion.
+ * <p>
+ * A column is read directly by the driver when its java type is the target type or when no registered conversion applies,
+ * and is otherwise read as is and converted with the {@link ColumnConverter}.
+ */
+final class RowMapping {
+
+    private static final int RECENT_LAYOUT_SLOTS = 16;
+
+    private final ColumnConverter converter;
+
+    private final List<Column<?>> columns = new ArrayList<>();
+
+    private final Map<String, Layout> layoutsByShape = new ConcurrentHashMap<>();
+
+    /**
+     * The recent layouts, by identity of their row metadata and by prefix, as drivers share one metadata instance between
+     * all the rows of a result: the rows of a result, even when read with several prefixes, do not build a shape key.
+     */
+    private final AtomicReferenceArray<Layout> recentLayouts = new AtomicReferenceArray<>(RECENT_LAYOUT_SLOTS);
+
+    RowMapping(ColumnConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * Declare a column read by the mapper.
+     * @param name the name of the column, without the prefix.
+     * @param target the type of the field.
+     * @param <T> the type of the field.
+     * @return the column, to read with {@link Layout#get(Row, Column)}.
+     */
+    <T> Column<T> column(String name, Class<T> target) {
+        Column<T> column = new Column<>(columns.size(), name, target);
+        columns.add(column);
+        return column;
+    }
+
+    /**
+     * Get the layout of the declared columns in rows of the given shape.
+     * @param metadata the metadata of the row.
+     * @param prefix the column prefix.
+     * @return the layout.
+     * @throws IllegalArgumentException if a declared column is not in the row.
+     */
+    Layout layout(RowMetadata metadata, String prefix) {
+        int slot = (31 * System.identityHashCode(metadata) + prefix.hashCode()) & (RECENT_LAYOUT_SLOTS - 1);
+        Layout layout = recentLayouts.get(slot);
+        if (layout != null && layout.metadata == metadata && layout.prefix.equals(prefix)) {
+            return layout;
+        }
+        StringBuilder shape = new StringBuilder(prefix);
+        for (ColumnMetadata columnMetadata : metadata.getColumnMetadatas()) {
+            shape.append(',').append(columnMetadata.getName()).append(':').append(columnMetadata.getJavaType());
+        }
+        layout = layoutsByShape.computeIfAbsent(shape.toString(), key -> compile(metadata, prefix));
+        layout = layout.metadata == metadata ? layout : layout.withMetadata(metadata);
+        recentLayouts.set(slot, layout);
+        return layout;
+    }
+
+    private Layout compile(RowMetadata metadata, String prefix) {
+        Map<String, Integer> indexes = new HashMap<>();
+        Map<String, Class<?>> javaTypes = new HashMap<>();
+        int index = 0;
+        for (ColumnMetadata columnMetadata : metadata.getColumnMetadatas()) {
+            String name = columnMetadata.getName().toLowerCase(Locale.ROOT);
+            indexes.putIfAbsent(name, index++);
+            if (columnMetadata.getJavaType() != null) {
+                javaTypes.putIfAbsent(name, columnMetadata.getJavaType());
+            }
+        }
+        ColumnReader<?>[] readers = new ColumnReader<?>[columns.size()];
+        for (Column<?> column : columns) {
+            String name = (prefix + "_" + column.name).toLowerCase(Locale.ROOT);
+            Integer columnIndex = indexes.get(name);
+            if (columnIndex == null) {
+                throw new IllegalArgumentException("Column " + name + " is not in the result");
+            }
+            readers[column.ordinal] = createReader(columnIndex, javaTypes.get(name), column.target);
+        }
+        return new Layout(metadata, prefix, readers);
+    }
+
+    private <T> ColumnReader<T> createReader(int index, Class<?> javaType, Class<T> target) {
+        if (javaType != null && (ClassUtils.isAssignable(target, javaType) || !converter.canConvert(javaType, target))) {
+            return row -> row.get(index, target);
+        }
+        return row -> converter.convert(row.get(index), target);
+    }
+
+    /**
+     * A column read by a mapper.
+     * @param <T> the type of the field.
+     */
+    static final class Column<T> {
+
+        private final int ordinal;
+        private final String name;
+        private final Class<T> target;
+
+        private Column(int ordinal, String name, Class<T> target) {
+            this.ordinal = ordinal;
+            this.name = name;
+            this.target = target;
+        }
+    }
+
+    /**
+     * The readers of the declared columns, for one row shape and column prefix.
+     */
+    static final class Layout {
+
+        private final RowMetadata metadata;
+        private final String prefix;
+        private final ColumnReader<?>[] readers;
+
+        private Layout(RowMetadata metadata, String prefix, ColumnReader<?>[] readers) {
+            this.metadata = metadata;
+            this.prefix = Objects.requireNonNull(prefix);
+            this.readers = readers;
+        }
+
+        private Layout withMetadata(RowMetadata metadata) {
+            return new Layout(metadata, prefix, readers);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(Row row, Column<T> column) {
+            return ((ColumnReader<T>) readers[column.ordinal]).read(row);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader<T> {
+        T read(Row row);
+    }
+}
@@ -3,41 +3,65 @@ package com.myapp.repository.rowmapper;
 import com.myapp.domain.User;
 import com.myapp.service.ColumnConverter;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import java.time.Instant;
-import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
 /**
  * Converter between {@link Row} to {@link User}, with proper type conversions.
  */
 @Service
-public class UserRowMapper implements BiFunction<Row, String, User> {
+public class UserRowMapper {
 
-    private final ColumnConverter converter;
+    private final RowMapping mapping;
+    private final RowMapping.Column<Long> id;
+    private final RowMapping.Column<String> login;
+    private final RowMapping.Column<String> password;
+    private final RowMapping.Column<String> firstName;
+    private final RowMapping.Column<String> lastName;
+    private final RowMapping.Column<String> email;
+    private final RowMapping.Column<Boolean> activated;
+    private final RowMapping.Column<String> langKey;
+    private final RowMapping.Column<String> imageUrl;
+    private final RowMapping.Column<String> activationKey;
+    private final RowMapping.Column<String> resetKey;
+    private final RowMapping.Column<Instant> resetDate;
 
     public UserRowMapper(ColumnConverter converter) {
-        this.converter = converter;
+        this.mapping = new RowMapping(converter);
+        this.id = mapping.column("id", Long.class);
+        this.login = mapping.column("login", String.class);
+        this.password = mapping.column("password", String.class);
+        this.firstName = mapping.column("first_name", String.class);
+        this.lastName = mapping.column("last_name", String.class);
+        this.email = mapping.column("email", String.class);
+        this.activated = mapping.column("activated", Boolean.class);
+        this.langKey = mapping.column("lang_key", String.class);
+        this.imageUrl = mapping.column("image_url", String.class);
+        this.activationKey = mapping.column("activation_key", String.class);
+        this.resetKey = mapping.column("reset_key", String.class);
+        this.resetDate = mapping.column("reset_date", Instant.class);
     }
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
      * @return the {@link User} stored in the database.
      */
-    @Override
-    public User apply(Row row, String prefix) {
+    public User apply(Row row, RowMetadata metadata, String prefix) {
+        RowMapping.Layout layout = mapping.layout(metadata, prefix);
         User entity = new User();
-        entity.setId(row.get(prefix + "_id", Long.class));
-        entity.setLogin(converter.fromRow(row, prefix + "_login", String.class));
-        entity.setPassword(converter.fromRow(row, prefix + "_password", String.class));
-        entity.setFirstName(converter.fromRow(row, prefix + "_first_name", String.class));
-        entity.setLastName(converter.fromRow(row, prefix + "_last_name", String.class));
-        entity.setEmail(converter.fromRow(row, prefix + "_email", String.class));
-        entity.setActivated(Boolean.TRUE.equals(converter.fromRow(row, prefix + "_activated", Boolean.class)));
-        entity.setLangKey(converter.fromRow(row, prefix + "_lang_key", String.class));
-        entity.setImageUrl(converter.fromRow(row, prefix + "_image_url", String.class));
-        entity.setActivationKey(converter.fromRow(row, prefix + "_activation_key", String.class));
-        entity.setResetKey(converter.fromRow(row, prefix + "_reset_key", String.class));
-        entity.setResetDate(converter.fromRow(row, prefix + "_reset_date", Instant.class));
+        entity.setId(layout.get(row, id));
+        entity.setLogin(layout.get(row, login));
+        entity.setPassword(layout.get(row, password));
+        entity.setFirstName(layout.get(row, firstName));
+        entity.setLastName(layout.get(row, lastName));
+        entity.setEmail(layout.get(row, email));
+        entity.setActivated(Boolean.TRUE.equals(layout.get(row, activated)));
+        entity.setLangKey(layout.get(row, langKey));
+        entity.setImageUrl(layout.get(row, imageUrl));
+        entity.setActivationKey(layout.get(row, activationKey));
+        entity.setResetKey(layout.get(row, resetKey));
+        entity.setResetDate(layout.get(row, resetDate));
         return entity;
     }
 }
@@ -0,0 +1,50 @@
+package com.myapp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * A {@link BCryptPasswordEncoder} timing its hashes and verifications, and asking to hash again the passwords hashed
+ * with another cost than its own - lower or higher - so that changing the cost applies on the next login of each user.
+ */
+public class MeteredBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final String METRIC_NAME = "security.password.hash";
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    public MeteredBCryptPasswordEncoder(int strength, MeterRegistry meterRegistry) {
+        super(strength);
+        this.strength = strength;
+        this.encodeTimer = Timer.builder(METRIC_NAME).tag("operation", "encode").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_NAME).tag("operation", "matches").publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> super.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(2)) != strength;
+    }
+}
@@ -0,0 +1,13 @@
+package com.myapp.security;
+
+/**
+ * This exception is thrown when a password cannot be hashed or verified because too many are waiting already.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException(Throwable t) {
+        super("Too many passwords are being hashed, try again later", t);
+    }
+}
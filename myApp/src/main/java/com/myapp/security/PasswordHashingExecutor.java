@@ -0,0 +1,81 @@
+package com.myapp.security;
+
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the password hashes and verifications on their own threads, so that they do not compete with the other blocking
+ * tasks, and the other tasks do not wait behind them.
+ * <p>
+ * Hashes wait in a bounded queue: once it is full, they fail right away with a {@link PasswordHashingBusyException}
+ * instead of making every login slower. The size of the queue and the number of rejected hashes are exported as
+ * metrics.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private static final String METRIC_NAME = "security.password.hashing";
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    public PasswordHashingExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        Counter rejected = Counter.builder(METRIC_NAME + ".rejected").register(meterRegistry);
+        this.executor =
+            new ThreadPoolExecutor(
+                passwordHashing.getThreads(),
+                passwordHashing.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordHashing.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                }
+            );
+        this.scheduler = Schedulers.fromExecutorService(executor, "passwordHashing");
+        Gauge.builder(METRIC_NAME + ".queued", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Get the scheduler running the password hashes and verifications.
+     *
+     * @return the scheduler.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Continue the given {@link Mono} on the password hashing threads, failing with a {@link PasswordHashingBusyException}
+     * if too many hashes are waiting.
+     *
+     * @param source the {@link Mono} whose next operators hash or verify passwords.
+     * @param <T> the type of the value.
+     * @return the {@link Mono} switched to the password hashing threads.
+     */
+    public <T> Mono<T> publishOn(Mono<T> source) {
+        return source.publishOn(scheduler).onErrorMap(RejectedExecutionException.class, PasswordHashingBusyException::new);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,211 @@
+package com.myapp.security;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.domain.User;
+import com.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded cache of the users with their authorities, keyed by login and by lowercase email, so that repeated logins
+ * and {@code /api/account} calls do not query the database every time.
+ * <p>
+ * Entries are evicted by {@link #evict(User)} whenever a user is saved or deleted, and in any case expire after the
+ * configured time to live, which bounds how stale a user can be when it was changed by another instance or directly in
+ * the database. A load running while a user is evicted is not cached. The cached users are shared: they must not be
+ * modified.
+ */
+@Component
+public class UserCache {
+
+    private static final String METRIC_NAME = "security.user.cache";
+
+    private static final String LOGIN_PREFIX = "login:";
+
+    private static final String EMAIL_PREFIX = "email:";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.Security.UserCache userCache;
+
+    private final long timeToLiveInMillis;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    public UserCache(UserRepository userRepository, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userCache = applicationProperties.getSecurity().getUserCache();
+        this.timeToLiveInMillis = TimeUnit.SECONDS.toMillis(userCache.getTimeToLiveInSeconds());
+        this.hits = Counter.builder(METRIC_NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME).tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder(METRIC_NAME + ".evictions").register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get a user with its authorities by login.
+     *
+     * @param login the lowercase login.
+     * @return the user, or an empty {@link Mono} if it does not exist.
+     */
+    public Mono<User> findOneWithAuthoritiesByLogin(String login) {
+        return get(LOGIN_PREFIX + login, () -> userRepository.findOneWithAuthoritiesByLogin(login));
+    }
+
+    /**
+     * Get a user with its authorities by email, ignoring case.
+     *
+     * @param email the email.
+     * @return the user, or an empty {@link Mono} if it does not exist.
+     */
+    public Mono<User> findOneWithAuthoritiesByEmail(String email) {
+        return get(EMAIL_PREFIX + email.toLowerCase(Locale.ENGLISH), () -> userRepository.findOneWithAuthoritiesByEmailIgnoreCase(email));
+    }
+
+    /**
+     * Evict a user which has been saved or deleted, under its current login and email as well as the previous ones.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        evictionCount.incrementAndGet();
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (user.getLogin() != null) {
+            remove(LOGIN_PREFIX + user.getLogin());
+        }
+        if (user.getEmail() != null) {
+            remove(EMAIL_PREFIX + user.getEmail().toLowerCase(Locale.ENGLISH));
+        }
+        if (user.getId() != null) {
+            // the login or the email may have changed: the users are saved rarely enough to afford a scan
+            entries.values().removeIf(entry -> Objects.equals(entry.user.getId(), user.getId()));
+        }
+    }
+
+    /**
+     * Evict a user whose password has been changed, under its login and its email.
+     *
+     * @param login the lowercase login.
+     */
+    public void evict(String login) {
+        evictionCount.incrementAndGet();
+        if (entries.isEmpty()) {
+            return;
+        }
+        remove(LOGIN_PREFIX + login);
+        entries.values().removeIf(entry -> login.equals(entry.user.getLogin()));
+    }
+
+    /**
+     * Evict all the users.
+     */
+    public void evictAll() {
+        evictionCount.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Mono<User> get(String key, Supplier<Mono<User>> loader) {
+        if (!userCache.isEnabled()) {
+            return loader.get();
+        }
+        return Mono.defer(
+            () -> {
+                Entry entry = entries.get(key);
+                long now = System.currentTimeMillis();
+                if (entry != null && !entry.isExpired(now)) {
+                    hits.increment();
+                    return Mono.just(entry.user);
+                }
+                if (entry != null) {
+                    remove(key);
+                }
+                misses.increment();
+                long evictionsBeforeLoad = evictionCount.get();
+                return loader
+                    .get()
+                    .doOnNext(
+                        user -> {
+                            // a user evicted while it was loading may have been loaded before its change
+                            if (evictionCount.get() == evictionsBeforeLoad) {
+                                put(key, user, now);
+                            }
+                        }
+                    );
+            }
+        );
+    }
+
+    private void put(String key, User user, long now) {
+        if (entries.size() >= userCache.getMaxEntries()) {
+            shrink(now);
+        }
+        entries.put(key, new Entry(user, now + timeToLiveInMillis));
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drop the expired entries, then arbitrary ones until the cache is back to 90% of its capacity, so that a full
+     * cache does not pay for a scan on every insertion.
+     */
+    private void shrink(long now) {
+        int maxEntries = userCache.getMaxEntries();
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target;) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+
+        private final User user;
+
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -8,36 +8,27 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+/**
+ * Relays the {@code Authorization} header of the request to the routed services.
+ * <p>
+ * The header is relayed untouched: the token is verified once per exchange by {@link JWTFilter}, and the routed
+ * services verify it again, so it is neither verified nor rebuilt here. Only malformed headers are rejected.
+ */
 @Component
 public class JWTRelayGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
 
-    private final TokenProvider tokenProvider;
-
-    public JWTRelayGatewayFilterFactory(TokenProvider tokenProvider) {
-        this.tokenProvider = tokenProvider;
-    }
-
     @Override
     public GatewayFilter apply(Object config) {
         return (exchange, chain) -> {
-            String token = this.extractJWTToken(exchange.getRequest());
-            if (StringUtils.hasText(token) && this.tokenProvider.validateToken(token)) {
-                ServerHttpRequest request = exchange.getRequest().mutate().header(AUTHORIZATION_HEADER, "Bearer " + token).build();
-
-                return chain.filter(exchange.mutate().request(request).build());
-            }
+            checkAuthorizationHeader(exchange.getRequest());
             return chain.filter(exchange);
         };
     }
 
-    private String extractJWTToken(ServerHttpRequest request) {
+    private void checkAuthorizationHeader(ServerHttpRequest request) {
         String bearerToken = request.getHeaders().getFirst(AUTHORIZATION_HEADER);
-        if (bearerToken == null) {
-            return null;
-        }
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && !(StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer "))) {
+            throw new IllegalArgumentException("Invalid token in Authorization header");
         }
-        throw new IllegalArgumentException("Invalid token in Authorization header");
     }
 }
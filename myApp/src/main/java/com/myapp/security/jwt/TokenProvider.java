@@ -1,9 +1,11 @@
 package com.myapp.security.jwt;
 
+import com.myapp.config.ApplicationProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.jackson.io.JacksonSerializer;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
@@ -34,7 +36,9 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -53,6 +57,8 @@ public class TokenProvider {
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        ApplicationProperties.Security.JwtCache jwtCache = applicationProperties.getSecurity().getJwtCache();
+        this.verifiedTokenCache = jwtCache.isEnabled() ? new VerifiedTokenCache(jwtCache.getMaxEntries(), meterRegistry) : null;
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -77,8 +83,41 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return createAuthentication(token, jwtParser.parseClaimsJws(token).getBody());
+    }
+
+    /**
+     * Verify a token and build its authentication, parsing it only once.
+     * <p>
+     * Tokens that have already been verified are served from a bounded cache until they expire.
+     *
+     * @param token the JWT to verify.
+     * @return the authentication, or an empty {@link Optional} if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        String key = null;
+        if (verifiedTokenCache != null) {
+            key = verifiedTokenCache.key(token);
+            Authentication cached = verifiedTokenCache.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Authentication authentication = createAuthentication(token, claims);
+            if (key != null && claims.getExpiration() != null) {
+                verifiedTokenCache.put(key, authentication, claims.getExpiration().getTime());
+            }
+            return Optional.of(authentication);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return Optional.empty();
+    }
 
+    private Authentication createAuthentication(String token, Claims claims) {
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
@@ -0,0 +1,134 @@
+package com.myapp.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded cache of the {@link Authentication} built from already verified JWT.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token and are dropped as soon as the token expires, so a cached
+ * entry never outlives the validity of the token it was built from.
+ */
+class VerifiedTokenCache {
+
+    private static final String METRIC_NAME = "jwt.verification.cache";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    VerifiedTokenCache(int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder(METRIC_NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME).tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder(METRIC_NAME + ".evictions").register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get the key of a token, to look it up and then store it without digesting it twice.
+     *
+     * @param token the raw JWT.
+     * @return the SHA-256 digest of the token.
+     */
+    String key(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Get the authentication of a verified token.
+     *
+     * @param key the key of the token, see {@link #key(String)}.
+     * @return the cached authentication, or {@code null} if the token is unknown or has expired.
+     */
+    Authentication get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.authentication;
+    }
+
+    /**
+     * Store the authentication of a token that has just been verified.
+     *
+     * @param key the key of the token, see {@link #key(String)}.
+     * @param authentication the authentication built from its claims.
+     * @param expiresAt the expiration time of the token, in milliseconds since the epoch.
+     */
+    void put(String key, Authentication authentication, long expiresAt) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(key, new Entry(authentication, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop the expired entries, then arbitrary ones until the cache is back to 90% of its capacity, so that a full
+     * cache does not pay for a scan on every insertion.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target;) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        private Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
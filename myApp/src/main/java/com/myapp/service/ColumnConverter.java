@@ -46,6 +46,20 @@ public class ColumnConverter {
         return conversionService.convert(value, target);
     }
 
+    /**
+     * Checks if {@link #convert(Object, Class)} has a conversion from the source type to the target class.
+     * @param source the type of the value.
+     * @param target class.
+     * @return true if a conversion applies.
+     */
+    public boolean canConvert(Class<?> source, Class<?> target) {
+        return (
+            conversions.hasCustomReadTarget(source, target) ||
+            Enum.class.isAssignableFrom(target) ||
+            conversionService.canConvert(source, target)
+        );
+    }
+
     /**
      * Convert a value from the {@link Row} to a type - throws an exception, it it's impossible.
      * @param row which contains the column values.
@@ -1,20 +1,39 @@
 package com.myapp.service;
 
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.validation.constraints.NotNull;
+import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
 import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
@@ -24,7 +43,12 @@ import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
 import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.PreparedOperation;
+import org.springframework.r2dbc.core.binding.BindMarker;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindTarget;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
@@ -40,6 +64,10 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    public static final String ID_PARAMETER = "id";
+    public static final String LIMIT_PARAMETER = "limit";
+    public static final String OFFSET_PARAMETER = "offset";
+
     public static class LinkTable {
 
         final String tableName;
@@ -56,16 +84,87 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Position in a keyset (seek) pagination: the sort order, the page size, and the sort key and id of the last row of the
+     * previous page - or nothing, for the first page.
+     * <p>
+     * Rows are ordered by the sort property, then by id, so the sort property does not need to be unique, but it must not be
+     * nullable: only the id, primitive and {@link NotNull} properties are used.
+     */
+    public static class Keyset {
+
+        final String property;
+        final Sort.Direction direction;
+        final int size;
+        final Object lastValue;
+        final Object lastId;
+
+        Keyset(String property, Sort.Direction direction, int size, Object lastValue, Object lastId) {
+            Assert.notNull(property, "property is null");
+            Assert.notNull(direction, "direction is null");
+            Assert.isTrue(size > 0, "size must be positive");
+            this.property = property;
+            this.direction = direction;
+            this.size = size;
+            this.lastValue = lastValue;
+            this.lastId = lastId;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isFirstPage() {
+            return lastId == null;
+        }
+    }
+
+    private static final int LINK_TABLE_BATCH_SIZE = 500;
+
+    private static final String KEYSET_SEPARATOR = "|";
+    private static final String KEYSET_VALUE_PARAMETER = "keysetValue";
+    private static final String KEYSET_ID_PARAMETER = "keysetId";
+
+    private static final String TEMPLATE_KEY_SEPARATOR = "|";
+    private static final int MAX_TEMPLATE_SORT_ORDERS = 2;
+
+    /**
+     * Values rendered by the limit clause of the dialect, then replaced by the bind markers of the page parameters.
+     */
+    private static final long LIMIT_PLACEHOLDER = 1111111111L;
+    private static final long OFFSET_PLACEHOLDER = 2222222222L;
+
+    /**
+     * Rendered select statements, by entity, join shape, normalized sort and paging - the values of the statements are bind
+     * markers, and only sorts of at most {@value #MAX_TEMPLATE_SORT_ORDERS} distinct sortable properties are cached, so the
+     * number of templates is bounded by the sortable properties of the entities.
+     */
+    private final Map<String, String> selectTemplates = new ConcurrentHashMap<>();
+
     private final SqlRenderer sqlRenderer;
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
+    private final R2dbcDialect dialect;
+    private final String pageClause;
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcDialect dialect
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        this.dialect = dialect;
+        this.pageClause =
+            dialect
+                .limit()
+                .getLimitOffset(LIMIT_PLACEHOLDER, OFFSET_PLACEHOLDER)
+                .replace(String.valueOf(LIMIT_PLACEHOLDER), ":" + LIMIT_PARAMETER)
+                .replace(String.valueOf(OFFSET_PLACEHOLDER), ":" + OFFSET_PARAMETER);
     }
 
     /**
@@ -142,6 +241,269 @@ public class EntityManager {
         return createSelect(selectFrom.build());
     }
 
+    /**
+     * Creates, or gets from the cache, the SQL select statement of the entity with a given id. The statement is built and
+     * rendered on the first call only, and the id must be bound to the {@value #ID_PARAMETER} parameter.
+     * @param entityType the entity type which holds the table name.
+     * @param joinShape the name of the joins made by {@code selectFrom}, which is part of the cache key.
+     * @param selectFrom creates a representation of a select statement, called on cache misses only.
+     * @return sql select statement
+     */
+    public String createSelectByIdTemplate(Class<?> entityType, String joinShape, Supplier<? extends SelectOrdered> selectFrom) {
+        String key = String.join(TEMPLATE_KEY_SEPARATOR, entityType.getName(), joinShape, ID_PARAMETER);
+        return selectTemplates.computeIfAbsent(
+            key,
+            k -> {
+                RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+                String idColumn = entity.getRequiredIdProperty().getColumnName().getReference();
+                return createSelect(selectFrom.get().build()) + " WHERE " + ENTITY_ALIAS + "." + idColumn + " = :" + ID_PARAMETER;
+            }
+        );
+    }
+
+    /**
+     * Creates, or gets from the cache, the SQL select statement of a page of entities. The statement is built and rendered
+     * on the first call for a given sort only, and its limit and offset must be bound with
+     * {@link #bindPage(DatabaseClient.GenericExecuteSpec, Pageable)}.
+     * @param entityType the entity type which holds the table name.
+     * @param joinShape the name of the joins made by {@code selectFrom}, which is part of the cache key.
+     * @param pageable page parameter, or null, if everything needs to be returned
+     * @param selectFrom creates a representation of a select statement, called on cache misses only.
+     * @return sql select statement
+     */
+    public String createSelectTemplate(
+        Class<?> entityType,
+        String joinShape,
+        Pageable pageable,
+        Supplier<? extends SelectOrdered> selectFrom
+    ) {
+        boolean paged = pageable != null && pageable.isPaged();
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        Sort sort = normalizeSort(pageable == null ? Sort.unsorted() : pageable.getSort());
+        if (
+            sort.stream().count() > MAX_TEMPLATE_SORT_ORDERS ||
+            !sort.stream().allMatch(order -> isSortableProperty(entity, order.getProperty()))
+        ) {
+            // not cached, so that arbitrary sort parameters cannot grow the cache
+            return createSelectTemplateImpl(selectFrom.get(), entityType, sort, paged);
+        }
+        String sortKey = sort.stream().map(order -> order.getProperty() + ":" + order.getDirection()).collect(Collectors.joining(","));
+        String key = String.join(TEMPLATE_KEY_SEPARATOR, entityType.getName(), joinShape, sortKey, String.valueOf(paged));
+        return selectTemplates.computeIfAbsent(key, k -> createSelectTemplateImpl(selectFrom.get(), entityType, sort, paged));
+    }
+
+    /**
+     * Keeps the first order of each property, with its direction only: later orders of the same property cannot change the
+     * result, and the case and null handling of the orders are not rendered.
+     */
+    private static Sort normalizeSort(Sort sort) {
+        Map<String, Sort.Order> orders = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            orders.putIfAbsent(order.getProperty(), new Sort.Order(order.getDirection(), order.getProperty()));
+        }
+        return Sort.by(new ArrayList<>(orders.values()));
+    }
+
+    private String createSelectTemplateImpl(SelectOrdered selectFrom, Class<?> entityType, Sort sort, boolean paged) {
+        String select = createSelectImpl(selectFrom, entityType, sort);
+        if (!paged) {
+            return select;
+        }
+        return select + " " + pageClause;
+    }
+
+    /**
+     * Binds the limit and offset of a statement created by
+     * {@link #createSelectTemplate(Class, String, Pageable, Supplier)}.
+     * @param spec the statement to bind.
+     * @param pageable page parameter, or null, if everything needs to be returned
+     * @return the bound statement.
+     */
+    public DatabaseClient.GenericExecuteSpec bindPage(DatabaseClient.GenericExecuteSpec spec, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return spec;
+        }
+        return spec.bind(LIMIT_PARAMETER, pageable.getPageSize()).bind(OFFSET_PARAMETER, pageable.getOffset());
+    }
+
+    /**
+     * Creates an SQL select statement returning the page of a keyset pagination, which seeks directly after the last row of
+     * the previous page instead of skipping an offset, so deep pages cost as much as the first one.
+     * The parameters of the statement must be bound with {@link #bindKeyset(DatabaseClient.GenericExecuteSpec, Keyset)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param keyset the position of the page.
+     * @return sql select statement
+     */
+    public String createKeysetSelect(SelectFromAndJoin selectFrom, Class<?> entityType, Keyset keyset) {
+        return createKeysetSelectImpl(selectFrom, entityType, keyset);
+    }
+
+    /**
+     * Creates an SQL select statement returning the page of a keyset pagination, which seeks directly after the last row of
+     * the previous page instead of skipping an offset, so deep pages cost as much as the first one.
+     * The parameters of the statement must be bound with {@link #bindKeyset(DatabaseClient.GenericExecuteSpec, Keyset)}.
+     * @param selectFrom a representation of a select statement.
+     * @param entityType the entity type which holds the table name.
+     * @param keyset the position of the page.
+     * @return sql select statement
+     */
+    public String createKeysetSelect(SelectFromAndJoinCondition selectFrom, Class<?> entityType, Keyset keyset) {
+        return createKeysetSelectImpl(selectFrom, entityType, keyset);
+    }
+
+    private String createKeysetSelectImpl(SelectOrdered selectFrom, Class<?> entityType, Keyset keyset) {
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        String idColumn = ENTITY_ALIAS + "." + entity.getRequiredIdProperty().getColumnName().getReference();
+        String sortColumn = ENTITY_ALIAS + "." + entity.getRequiredPersistentProperty(keyset.property).getColumnName().getReference();
+        String comparator = keyset.direction.isAscending() ? " > " : " < ";
+        String direction = keyset.direction.isAscending() ? " ASC" : " DESC";
+
+        StringBuilder select = new StringBuilder(createSelect(selectFrom.build()));
+        if (!keyset.isFirstPage()) {
+            select.append(" WHERE ");
+            if (sortColumn.equals(idColumn)) {
+                select.append(idColumn).append(comparator).append(':').append(KEYSET_ID_PARAMETER);
+            } else {
+                select
+                    .append('(')
+                    .append(sortColumn)
+                    .append(comparator)
+                    .append(':')
+                    .append(KEYSET_VALUE_PARAMETER)
+                    .append(" OR (")
+                    .append(sortColumn)
+                    .append(" = :")
+                    .append(KEYSET_VALUE_PARAMETER)
+                    .append(" AND ")
+                    .append(idColumn)
+                    .append(comparator)
+                    .append(':')
+                    .append(KEYSET_ID_PARAMETER)
+                    .append("))");
+            }
+        }
+        select.append(" ORDER BY ");
+        if (!sortColumn.equals(idColumn)) {
+            select.append(sortColumn).append(direction).append(", ");
+        }
+        select.append(idColumn).append(direction);
+        return select.append(' ').append(dialect.limit().getLimit(keyset.size)).toString();
+    }
+
+    /**
+     * Binds the parameters of a statement created by {@link #createKeysetSelect(SelectFromAndJoin, Class, Keyset)}.
+     * @param spec the statement to bind.
+     * @param keyset the position of the page.
+     * @return the bound statement.
+     */
+    public DatabaseClient.GenericExecuteSpec bindKeyset(DatabaseClient.GenericExecuteSpec spec, Keyset keyset) {
+        if (keyset.isFirstPage()) {
+            return spec;
+        }
+        spec = spec.bind(KEYSET_ID_PARAMETER, keyset.lastId);
+        if (keyset.lastValue != null) {
+            // not bound for the id, whose statement has no value parameter
+            spec = spec.bind(KEYSET_VALUE_PARAMETER, keyset.lastValue);
+        }
+        return spec;
+    }
+
+    /**
+     * Creates the position of a keyset pagination page.
+     * @param entityType the entity type which is paginated.
+     * @param sort the requested order - only its first non-nullable property is used, and the id is used when it is unsorted or
+     * has none.
+     * @param size the page size.
+     * @param cursor the opaque cursor returned with the previous page, or null for the first page.
+     * @return the position of the page.
+     * @throws IllegalArgumentException if the cursor is not valid for this entity.
+     */
+    public Keyset createKeyset(Class<?> entityType, Sort sort, int size, String cursor) {
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        if (cursor == null) {
+            Sort.Order order = sort == null
+                ? null
+                : sort.stream().filter(o -> isKeysetProperty(entity, o.getProperty())).findFirst().orElse(null);
+            if (order == null) {
+                return new Keyset(entity.getRequiredIdProperty().getName(), Sort.Direction.ASC, size, null, null);
+            }
+            return new Keyset(order.getProperty(), order.getDirection(), size, null, null);
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + KEYSET_SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (parts.length < 3 || !isKeysetProperty(entity, parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ConversionService conversionService = r2dbcEntityTemplate.getConverter().getConversionService();
+        RelationalPersistentProperty idProperty = entity.getRequiredIdProperty();
+        RelationalPersistentProperty sortProperty = entity.getRequiredPersistentProperty(parts[0]);
+        // the value of the sort property is left out for the id only, and may be an empty string otherwise
+        if (sortProperty.isIdProperty() != (parts.length == 3)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Object lastId = conversionService.convert(parts[2], idProperty.getType());
+        Object lastValue = sortProperty.isIdProperty() ? null : conversionService.convert(parts[3], sortProperty.getType());
+        if (lastId == null || (!sortProperty.isIdProperty() && lastValue == null)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new Keyset(parts[0], Sort.Direction.fromString(parts[1]), size, lastValue, lastId);
+    }
+
+    /**
+     * Creates the opaque cursor of the page following the given one.
+     * @param keyset the position of the current page.
+     * @param lastEntity the last entity of the current page.
+     * @return the cursor of the next page.
+     */
+    public String createNextCursor(Keyset keyset, Object lastEntity) {
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(lastEntity.getClass());
+        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(lastEntity);
+        ConversionService conversionService = r2dbcEntityTemplate.getConverter().getConversionService();
+        RelationalPersistentProperty sortProperty = entity.getRequiredPersistentProperty(keyset.property);
+        Object lastId = accessor.getProperty(entity.getRequiredIdProperty());
+        String cursor = String.join(
+            KEYSET_SEPARATOR,
+            keyset.property,
+            keyset.direction.name(),
+            conversionService.convert(lastId, String.class)
+        );
+        if (!sortProperty.isIdProperty()) {
+            Object lastValue = accessor.getProperty(sortProperty);
+            Assert.state(lastValue != null, () -> "The keyset property " + keyset.property + " of the last entity is null");
+            cursor += KEYSET_SEPARATOR + conversionService.convert(lastValue, String.class);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isSortableProperty(RelationalPersistentEntity<?> entity, String property) {
+        RelationalPersistentProperty persistentProperty = entity.getPersistentProperty(property);
+        return persistentProperty != null && !persistentProperty.isTransient() && !persistentProperty.isCollectionLike();
+    }
+
+    /**
+     * Whether the property can order a keyset pagination, which cannot seek past null values.
+     */
+    private static boolean isKeysetProperty(RelationalPersistentEntity<?> entity, String property) {
+        if (!isSortableProperty(entity, property)) {
+            return false;
+        }
+        RelationalPersistentProperty persistentProperty = entity.getRequiredPersistentProperty(property);
+        return (
+            persistentProperty.isIdProperty() ||
+            persistentProperty.getType().isPrimitive() ||
+            persistentProperty.isAnnotationPresent(NotNull.class)
+        );
+    }
+
+    private RelationalPersistentEntity<?> getRequiredPersistentEntity(Class<?> entityType) {
+        return r2dbcEntityTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityType);
+    }
+
     private RelationalPersistentEntity<?> getPersistentEntity(Class<?> entityType) {
         return r2dbcEntityTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
     }
@@ -184,39 +546,323 @@ public class EntityManager {
         return r2dbcEntityTemplate.insert(entity);
     }
 
+    /**
+     * Inserts the given entities of the same type into the database with a single batched statement, and sets their ids.
+     * <p>
+     * All the columns are written, including the null ones, so that every entity binds the same statement. The entities
+     * holding nothing but their id have nothing to bind, and are inserted by as many executions of the statement.
+     * @param <S> the type of the persisted entities.
+     * @param entities the entities to be inserted into the database, without ids.
+     * @return the persisted entities, in the same order.
+     */
+    public <S> Flux<S> insertAll(List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entities.get(0).getClass());
+        RelationalPersistentProperty idProperty = entity.getRequiredIdProperty();
+        List<PreparedOperation<?>> inserts = new ArrayList<>();
+        boolean idOnly = false;
+        for (S bean : entities) {
+            OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(bean);
+            row.remove(idProperty.getColumnName());
+            idOnly = row.isEmpty();
+            StatementMapper.InsertSpec insert = statementMapper.createInsert(entity.getTableName());
+            for (Entry<SqlIdentifier, Parameter> column : row.entrySet()) {
+                insert = insert.withColumn(column.getKey(), column.getValue());
+            }
+            inserts.add(statementMapper.getMappedObject(insert));
+        }
+        // a batch is made of bindings: the entities with nothing but an id are inserted one statement after the other
+        List<List<PreparedOperation<?>>> batches = idOnly
+            ? inserts.stream().map(Collections::<PreparedOperation<?>>singletonList).collect(Collectors.toList())
+            : Collections.singletonList(inserts);
+        ConversionService conversionService = r2dbcEntityTemplate.getConverter().getConversionService();
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .inConnectionMany(
+                connection ->
+                    Flux
+                        .fromIterable(batches)
+                        .concatMap(
+                            batch -> {
+                                Statement statement = connection
+                                    .createStatement(batch.get(0).toQuery())
+                                    .returnGeneratedValues(idProperty.getColumnName().getReference());
+                                return Flux.from(bindAll(statement, batch).execute());
+                            }
+                        )
+                        .concatMap((Result result) -> result.map((row, metadata) -> row.get(0)))
+            )
+            .zipWithIterable(
+                entities,
+                (id, bean) -> {
+                    entity.getPropertyAccessor(bean).setProperty(idProperty, conversionService.convert(id, idProperty.getType()));
+                    return bean;
+                }
+            );
+    }
+
+    /**
+     * Updates the given entities of the same type with a single batched statement.
+     * @param entities the entities to be updated, with ids.
+     * @return the number of updated rows of each entity, in the same order - 0 for the entities which do not exist.
+     */
+    public Flux<Integer> updateAll(List<?> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entities.get(0).getClass());
+        RelationalPersistentProperty idProperty = entity.getRequiredIdProperty();
+        List<Object> ids = new ArrayList<>();
+        List<PreparedOperation<?>> updates = new ArrayList<>();
+        for (Object bean : entities) {
+            OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(bean);
+            Parameter id = row.remove(idProperty.getColumnName());
+            ids.add(id.getValue());
+            if (!row.isEmpty()) {
+                @SuppressWarnings({ "unchecked", "rawtypes" })
+                Update update = Update.from((Map) row);
+                Criteria criteria = Criteria.where(idProperty.getColumnName().getReference()).is(id);
+                StatementMapper.UpdateSpec updateSpec = statementMapper.createUpdate(entity.getTableName(), update).withCriteria(criteria);
+                updates.add(statementMapper.getMappedObject(updateSpec));
+            }
+        }
+        if (updates.isEmpty()) {
+            // nothing but the id to update: only check that the entities exist
+            return findExistingIds(entity, ids)
+                .flatMapIterable(existing -> ids.stream().map(id -> existing.contains(id) ? 1 : 0).collect(Collectors.toList()));
+        }
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .inConnectionMany(
+                connection -> {
+                    Statement statement = connection.createStatement(updates.get(0).toQuery());
+                    return Flux.from(bindAll(statement, updates).execute()).concatMap(Result::getRowsUpdated);
+                }
+            );
+    }
+
+    /**
+     * Deletes the entities of the given type with the given ids.
+     * @param entityType the entity type which holds the table name.
+     * @param ids the ids of the entities to delete.
+     * @return the ids of the entities which existed, and were deleted.
+     */
+    public Mono<Set<Object>> deleteAllById(Class<?> entityType, Collection<?> ids) {
+        RelationalPersistentEntity<?> entity = getRequiredPersistentEntity(entityType);
+        String idColumn = entity.getRequiredIdProperty().getColumnName().getReference();
+        return findExistingIds(entity, ids)
+            .flatMap(
+                existing -> {
+                    if (existing.isEmpty()) {
+                        return Mono.just(existing);
+                    }
+                    return r2dbcEntityTemplate
+                        .getDatabaseClient()
+                        .sql("DELETE FROM " + entity.getTableName().getReference() + " WHERE " + idColumn + " IN (:ids)")
+                        .bind("ids", existing)
+                        .then()
+                        .thenReturn(existing);
+                }
+            );
+    }
+
+    /**
+     * Finds which of the given ids belong to an entity of the given type.
+     * @param entityType the entity type which holds the table name.
+     * @param ids the ids to look up.
+     * @return the ids of the existing entities.
+     */
+    public Mono<Set<Object>> findExistingIds(Class<?> entityType, Collection<?> ids) {
+        return findExistingIds(getRequiredPersistentEntity(entityType), ids);
+    }
+
+    private Mono<Set<Object>> findExistingIds(RelationalPersistentEntity<?> entity, Collection<?> ids) {
+        Set<Object> distinctIds = ids.stream().filter(id -> id != null).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Mono.just(new HashSet<>());
+        }
+        RelationalPersistentProperty idProperty = entity.getRequiredIdProperty();
+        String idColumn = idProperty.getColumnName().getReference();
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql("SELECT " + idColumn + " FROM " + entity.getTableName().getReference() + " WHERE " + idColumn + " IN (:ids)")
+            .bind("ids", distinctIds)
+            .map(row -> row.get(0, idProperty.getType()))
+            .all()
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Binds the operations, which all render the same statement, as the batch of the statement.
+     */
+    private static Statement bindAll(Statement statement, List<PreparedOperation<?>> operations) {
+        BindTarget bindTarget = new StatementBindTarget(statement);
+        for (int i = 0; i < operations.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            operations.get(i).bindTo(bindTarget);
+        }
+        return statement;
+    }
+
+    private static class StatementBindTarget implements BindTarget {
+
+        private final Statement statement;
+
+        StatementBindTarget(Statement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public void bind(String identifier, Object value) {
+            statement.bind(identifier, value);
+        }
+
+        @Override
+        public void bind(int index, Object value) {
+            statement.bind(index, value);
+        }
+
+        @Override
+        public void bindNull(String identifier, Class<?> type) {
+            statement.bindNull(identifier, type);
+        }
+
+        @Override
+        public void bindNull(int index, Class<?> type) {
+            statement.bindNull(index, type);
+        }
+    }
+
     /**
      * Updates the table, which links the entity with the referred entities.
+     * <p>
+     * Only the differences with the existing links are written: removed links are deleted and new links are inserted with
+     * multi-row statements of at most {@value #LINK_TABLE_BATCH_SIZE} rows, while unchanged links are left untouched.
+     * The existing links are read and the differences written on a single connection, the one of the surrounding
+     * transaction if any, so that the writes are based on what the same connection read.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
      * @param entityId the id of the entity, for which the links are created.
      * @param referencedIds the id of the referred entities.
      * @return the number of inserted rows.
      */
     public Mono<Integer> updateLinkTable(LinkTable table, Long entityId, Stream<Long> referencedIds) {
-        return deleteFromLinkTable(table, entityId)
-            .then(
-                Flux
-                    .fromStream(referencedIds)
-                    .flatMap(
-                        (Long referenceId) -> {
-                            StatementMapper.InsertSpec insert = r2dbcEntityTemplate
-                                .getDataAccessStrategy()
-                                .getStatementMapper()
-                                .createInsert(table.tableName)
-                                .withColumn(table.idColumn, Parameter.from(entityId))
-                                .withColumn(table.referenceColumn, Parameter.from(referenceId));
-
-                            return r2dbcEntityTemplate
-                                .getDatabaseClient()
-                                .sql(statementMapper.getMappedObject(insert))
-                                .fetch()
-                                .rowsUpdated();
-                        }
-                    )
-                    .collectList()
-                    .map((List<Integer> updates) -> updates.stream().reduce(Integer::sum).orElse(0))
+        Assert.notNull(entityId, "entityId is null");
+        Set<Long> referenced = referencedIds.collect(Collectors.toCollection(LinkedHashSet::new));
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .inConnection(
+                connection ->
+                    selectFromLinkTable(connection, table, entityId)
+                        .flatMap(
+                            (Set<Long> existing) -> {
+                                List<Long> removed = existing.stream().filter(id -> !referenced.contains(id)).collect(Collectors.toList());
+                                List<Long> added = referenced.stream().filter(id -> !existing.contains(id)).collect(Collectors.toList());
+                                return deleteFromLinkTable(connection, table, entityId, removed)
+                                    .then(insertIntoLinkTable(connection, table, entityId, added));
+                            }
+                        )
             );
     }
 
+    private Mono<Set<Long>> selectFromLinkTable(Connection connection, LinkTable table, Long entityId) {
+        BindMarkers markers = dialect.getBindMarkersFactory().create();
+        BindMarker entityIdMarker = markers.next();
+        Statement statement = connection.createStatement(
+            "SELECT " +
+            table.referenceColumn +
+            " FROM " +
+            table.tableName +
+            " WHERE " +
+            table.idColumn +
+            " = " +
+            entityIdMarker.getPlaceholder()
+        );
+        entityIdMarker.bind(new StatementBindTarget(statement), entityId);
+        return Flux
+            .from(statement.execute())
+            .concatMap((Result result) -> result.map((row, metadata) -> row.get(0, Long.class)))
+            .collect(Collectors.toSet());
+    }
+
+    private Mono<Void> deleteFromLinkTable(Connection connection, LinkTable table, Long entityId, List<Long> referencedIds) {
+        return Flux
+            .fromIterable(referencedIds)
+            .buffer(LINK_TABLE_BATCH_SIZE)
+            .concatMap(
+                (List<Long> chunk) -> {
+                    BindMarkers markers = dialect.getBindMarkersFactory().create();
+                    BindMarker entityIdMarker = markers.next();
+                    List<BindMarker> referenceMarkers = chunk.stream().map(id -> markers.next()).collect(Collectors.toList());
+                    Statement statement = connection.createStatement(
+                        "DELETE FROM " +
+                        table.tableName +
+                        " WHERE " +
+                        table.idColumn +
+                        " = " +
+                        entityIdMarker.getPlaceholder() +
+                        " AND " +
+                        table.referenceColumn +
+                        " IN (" +
+                        referenceMarkers.stream().map(BindMarker::getPlaceholder).collect(Collectors.joining(", ")) +
+                        ")"
+                    );
+                    BindTarget bindTarget = new StatementBindTarget(statement);
+                    entityIdMarker.bind(bindTarget, entityId);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        referenceMarkers.get(i).bind(bindTarget, chunk.get(i));
+                    }
+                    return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+                }
+            )
+            .then();
+    }
+
+    private Mono<Integer> insertIntoLinkTable(Connection connection, LinkTable table, Long entityId, List<Long> referencedIds) {
+        return Flux
+            .fromIterable(referencedIds)
+            .buffer(LINK_TABLE_BATCH_SIZE)
+            .concatMap(
+                (List<Long> chunk) -> {
+                    // a marker per value, as the positional markers of some databases cannot be bound twice
+                    BindMarkers markers = dialect.getBindMarkersFactory().create();
+                    List<BindMarker> entityIdMarkers = new ArrayList<>(chunk.size());
+                    List<BindMarker> referenceMarkers = new ArrayList<>(chunk.size());
+                    StringBuilder sql = new StringBuilder("INSERT INTO ")
+                        .append(table.tableName)
+                        .append(" (")
+                        .append(table.idColumn)
+                        .append(", ")
+                        .append(table.referenceColumn)
+                        .append(") VALUES ");
+                    for (int i = 0; i < chunk.size(); i++) {
+                        BindMarker entityIdMarker = markers.next();
+                        BindMarker referenceMarker = markers.next();
+                        entityIdMarkers.add(entityIdMarker);
+                        referenceMarkers.add(referenceMarker);
+                        sql
+                            .append(i == 0 ? "" : ", ")
+                            .append('(')
+                            .append(entityIdMarker.getPlaceholder())
+                            .append(", ")
+                            .append(referenceMarker.getPlaceholder())
+                            .append(')');
+                    }
+                    Statement statement = connection.createStatement(sql.toString());
+                    BindTarget bindTarget = new StatementBindTarget(statement);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        entityIdMarkers.get(i).bind(bindTarget, entityId);
+                        referenceMarkers.get(i).bind(bindTarget, chunk.get(i));
+                    }
+                    return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+                }
+            )
+            .reduce(0, Integer::sum);
+    }
+
     public Mono<Void> deleteFromLinkTable(LinkTable table, Long entityId) {
         Assert.notNull(entityId, "entityId is null");
         StatementMapper.DeleteSpec deleteSpec = r2dbcEntityTemplate
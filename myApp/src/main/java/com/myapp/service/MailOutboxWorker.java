@@ -0,0 +1,267 @@
+package com.myapp.service;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.domain.MailOutboxEntry;
+import com.myapp.domain.User;
+import com.myapp.repository.JobLockRepository;
+import com.myapp.repository.MailOutboxRepository;
+import com.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Delivers the emails of the outbox filled by the {@link MailService}.
+ * <p>
+ * Due emails are sent in batches of {@code application.mail-outbox.batch-size}, each batch through a single SMTP
+ * connection. Sent emails are removed from the outbox; failed ones are retried with an exponential backoff, and kept
+ * as failed after the last attempt. The delivery runs on one instance at a time, under a job lock.
+ */
+@Service
+public class MailOutboxWorker {
+
+    private static final String JOB_NAME = "mail-outbox-delivery";
+
+    private static final String METRIC_NAME = "mail.outbox";
+
+    private static final long POLL_INTERVAL_MILLIS = 5000;
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxWorker.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final UserRepository userRepository;
+
+    private final JobLockRepository jobLockRepository;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final ApplicationProperties.MailOutbox mailOutbox;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final Timer batchTimer;
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter abandoned;
+
+    public MailOutboxWorker(
+        MailOutboxRepository mailOutboxRepository,
+        UserRepository userRepository,
+        JobLockRepository jobLockRepository,
+        MailService mailService,
+        JavaMailSender javaMailSender,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.userRepository = userRepository;
+        this.jobLockRepository = jobLockRepository;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.mailOutbox = applicationProperties.getMailOutbox();
+        this.batchTimer = Timer.builder(METRIC_NAME + ".batch").register(meterRegistry);
+        this.sent = Counter.builder(METRIC_NAME + ".sent").register(meterRegistry);
+        this.retried = Counter.builder(METRIC_NAME + ".failed").tag("result", "retried").register(meterRegistry);
+        this.abandoned = Counter.builder(METRIC_NAME + ".failed").tag("result", "abandoned").register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Deliver the due emails in the background, unless a delivery is still running.
+     */
+    @Scheduled(fixedDelay = POLL_INTERVAL_MILLIS)
+    public void deliverScheduled() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        deliver()
+            .doFinally(signal -> running.set(false))
+            .subscribe(
+                count -> {
+                    if (count > 0) {
+                        log.debug("Delivered {} emails of the outbox", count);
+                    }
+                },
+                error -> log.warn("Could not deliver the emails of the outbox: {}", error.getMessage())
+            );
+    }
+
+    /**
+     * Deliver the due emails, batch after batch, until none is due.
+     *
+     * @return the number of processed emails, sent or not, {@code 0} if the delivery is running on another instance.
+     */
+    public Mono<Integer> deliver() {
+        return Mono
+            .usingWhen(
+                lock(),
+                locked -> locked ? deliverBatches() : Mono.just(0),
+                locked -> locked ? jobLockRepository.unlock(JOB_NAME, instanceId, now()) : Mono.empty()
+            )
+            .flatMap(count -> mailOutboxRepository.countPending().doOnNext(pending::set).thenReturn(count));
+    }
+
+    private Mono<Integer> deliverBatches() {
+        int batchSize = mailOutbox.getBatchSize();
+        return deliverBatch(batchSize)
+            .expand(
+                count ->
+                    count < batchSize
+                        ? Mono.empty()
+                        : lock().flatMap(locked -> locked ? deliverBatch(batchSize) : Mono.<Integer>empty())
+            )
+            .reduce(0, Integer::sum);
+    }
+
+    private Mono<Integer> deliverBatch(int batchSize) {
+        return mailOutboxRepository
+            .findDueEntries(now(), batchSize)
+            .collectList()
+            .flatMap(
+                entries -> {
+                    if (entries.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    Set<Long> userIds = entries.stream().map(MailOutboxEntry::getUserId).collect(Collectors.toSet());
+                    return userRepository
+                        .findAllById(userIds)
+                        .collectMap(User::getId)
+                        // rendering the templates and talking to the SMTP server block
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(users -> send(entries, users))
+                        .flatMap(failed -> saveResults(entries, failed))
+                        .thenReturn(entries.size());
+                }
+            );
+    }
+
+    /**
+     * Render and send a batch of emails through a single SMTP connection.
+     *
+     * @return the failed emails, with the error of each.
+     */
+    private Map<MailOutboxEntry, Exception> send(List<MailOutboxEntry> entries, Map<Long, User> users) {
+        long start = System.nanoTime();
+        Map<MailOutboxEntry, Exception> failed = new IdentityHashMap<>();
+        Map<MimeMessage, MailOutboxEntry> entriesByMessage = new IdentityHashMap<>();
+        for (MailOutboxEntry entry : entries) {
+            User user = users.get(entry.getUserId());
+            if (user == null) {
+                // the user has been deleted meanwhile: the email is dropped
+                log.debug("Dropping email '{}' of deleted user {}", entry.getTemplateName(), entry.getUserId());
+                continue;
+            }
+            try {
+                entriesByMessage.put(mailService.createEmailFromTemplate(user, entry), entry);
+            } catch (MessagingException | RuntimeException e) {
+                failed.put(entry, e);
+            }
+        }
+        if (!entriesByMessage.isEmpty()) {
+            int sentCount = entriesByMessage.size();
+            try {
+                javaMailSender.send(entriesByMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    entriesByMessage.values().forEach(entry -> failed.put(entry, e));
+                    sentCount = 0;
+                } else {
+                    failedMessages.forEach((message, error) -> failed.put(entriesByMessage.get(message), error));
+                    sentCount -= failedMessages.size();
+                }
+            } catch (MailException e) {
+                entriesByMessage.values().forEach(entry -> failed.put(entry, e));
+                sentCount = 0;
+            }
+            sent.increment(sentCount);
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return failed;
+    }
+
+    private Mono<Void> saveResults(List<MailOutboxEntry> entries, Map<MailOutboxEntry, Exception> failed) {
+        List<Long> processedIds = new ArrayList<>();
+        List<MailOutboxEntry> failedEntries = new ArrayList<>();
+        Instant now = Instant.now();
+        for (MailOutboxEntry entry : entries) {
+            Exception error = failed.get(entry);
+            if (error == null) {
+                processedIds.add(entry.getId());
+                continue;
+            }
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLastError(StringUtils.abbreviate(String.valueOf(error.getMessage()), MAX_ERROR_LENGTH));
+            if (entry.getAttempts() >= mailOutbox.getMaxAttempts()) {
+                log.warn("Email '{}' could not be sent to '{}', giving up", entry.getTemplateName(), entry.getEmail(), error);
+                entry.setFailed(true);
+                abandoned.increment();
+            } else {
+                log.info(
+                    "Email '{}' could not be sent to '{}', retrying: {}",
+                    entry.getTemplateName(),
+                    entry.getEmail(),
+                    error.getMessage()
+                );
+                entry.setNextAttemptDate(now.plusSeconds(getBackoffInSeconds(entry.getAttempts())));
+                retried.increment();
+            }
+            failedEntries.add(entry);
+        }
+        Mono<Void> deleteProcessed = processedIds.isEmpty() ? Mono.empty() : mailOutboxRepository.deleteByIdIn(processedIds);
+        return deleteProcessed.thenMany(Flux.fromIterable(failedEntries).concatMap(mailOutboxRepository::save)).then();
+    }
+
+    private long getBackoffInSeconds(int attempts) {
+        long backoff = (long) mailOutbox.getInitialBackoffInSeconds() << Math.min(attempts - 1, 30);
+        return Math.min(backoff, mailOutbox.getMaxBackoffInSeconds());
+    }
+
+    private Mono<Boolean> lock() {
+        LocalDateTime now = now();
+        return jobLockRepository.lock(JOB_NAME, instanceId, now, now.plusMinutes(mailOutbox.getLockTimeoutInMinutes()));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
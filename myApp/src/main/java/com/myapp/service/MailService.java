@@ -1,26 +1,33 @@
 package com.myapp.service;
 
+import com.myapp.domain.MailOutboxEntry;
 import com.myapp.domain.User;
+import com.myapp.repository.MailOutboxRepository;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
+import reactor.core.publisher.Mono;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The emails to the users are not sent while serving the request: they are stored in an outbox with a single insert,
+ * then rendered and sent in batches by the {@link MailOutboxWorker}, so that they survive a restart and a burst of
+ * registrations does not open one SMTP session per email. The {@link UserService} enqueues them in the transaction of the
+ * user change, so that an email is never sent for a change that has been rolled back.
  */
 @Service
 public class MailService {
@@ -39,74 +46,91 @@ public class MailService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final MailOutboxRepository mailOutboxRepository;
+
+    /**
+     * The subjects of the emails, by title key and language key.
+     */
+    private final Map<String, String> subjects = new ConcurrentHashMap<>();
+
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        MailOutboxRepository mailOutboxRepository
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.mailOutboxRepository = mailOutboxRepository;
     }
 
-    @Async
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
-            isMultipart,
-            isHtml,
-            to,
-            subject,
-            content
-        );
+    /**
+     * Render an email of the outbox.
+     *
+     * @param user the user the email is sent to.
+     * @param entry the outbox entry of the email.
+     * @return the email, ready to be sent.
+     * @throws MessagingException if the email cannot be built.
+     */
+    public MimeMessage createEmailFromTemplate(User user, MailOutboxEntry entry) throws MessagingException {
+        Locale locale = Locale.forLanguageTag(entry.getLangKey() != null ? entry.getLangKey() : user.getLangKey());
+        String content = getContent(user, entry.getTemplateName(), locale);
+        return createEmail(entry.getEmail(), getSubject(entry.getTitleKey(), locale), content);
+    }
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+    public Mono<Void> sendActivationEmail(User user) {
+        log.debug("Sending activation email to '{}'", user.getEmail());
+        return enqueueEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+    }
+
+    public Mono<Void> sendCreationEmail(User user) {
+        log.debug("Sending creation email to '{}'", user.getEmail());
+        return enqueueEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+    }
+
+    public Mono<Void> sendPasswordResetMail(User user) {
+        log.debug("Sending password reset email to '{}'", user.getEmail());
+        return enqueueEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
 
-    @Async
-    public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+    private Mono<Void> enqueueEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
-            return;
+            return Mono.empty();
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        MailOutboxEntry entry = new MailOutboxEntry();
+        entry.setUserId(user.getId());
+        entry.setEmail(user.getEmail());
+        entry.setLangKey(user.getLangKey());
+        entry.setTemplateName(templateName);
+        entry.setTitleKey(titleKey);
+        entry.setNextAttemptDate(Instant.now());
+        return mailOutboxRepository.save(entry).then();
     }
 
-    @Async
-    public void sendActivationEmail(User user) {
-        log.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+    private MimeMessage createEmail(String to, String subject, String content) throws MessagingException {
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, true);
+        return mimeMessage;
     }
 
-    @Async
-    public void sendCreationEmail(User user) {
-        log.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+    private String getContent(User user, String templateName, Locale locale) {
+        // the parsed templates are cached by the template engine, when spring.thymeleaf.cache is enabled
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
     }
 
-    @Async
-    public void sendPasswordResetMail(User user) {
-        log.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+    private String getSubject(String titleKey, Locale locale) {
+        return subjects.computeIfAbsent(titleKey + "|" + locale.toLanguageTag(), key -> messageSource.getMessage(titleKey, null, locale));
     }
 }
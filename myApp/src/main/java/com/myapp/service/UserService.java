@@ -1,29 +1,43 @@
 package com.myapp.service;
 
+import com.myapp.config.ApplicationProperties;
 import com.myapp.config.Constants;
 import com.myapp.domain.Authority;
 import com.myapp.domain.User;
 import com.myapp.repository.AuthorityRepository;
+import com.myapp.repository.JobLockRepository;
 import com.myapp.repository.UserRepository;
 import com.myapp.security.AuthoritiesConstants;
+import com.myapp.security.PasswordHashingExecutor;
 import com.myapp.security.SecurityUtils;
+import com.myapp.security.UserCache;
 import com.myapp.service.dto.AdminUserDTO;
 import com.myapp.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -32,6 +46,10 @@ import tech.jhipster.security.RandomUtil;
 @Service
 public class UserService {
 
+    private static final String PURGE_JOB_NAME = "remove-not-activated-users";
+
+    private static final String PURGE_METRIC_NAME = "user.purge";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -40,10 +58,56 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final UserCache userCache;
+
+    private final MailService mailService;
+
+    private final JobLockRepository jobLockRepository;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ApplicationProperties.UserPurge userPurge;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Timer purgeTimer;
+
+    private final LongTaskTimer activePurgeTimer;
+
+    private final Counter purgedUsers;
+
+    private final Counter purgedChunks;
+
+    private final Counter skippedPurges;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        PasswordHashingExecutor passwordHashingExecutor,
+        UserCache userCache,
+        MailService mailService,
+        JobLockRepository jobLockRepository,
+        ReactiveTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.userCache = userCache;
+        this.mailService = mailService;
+        this.jobLockRepository = jobLockRepository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.userPurge = applicationProperties.getUserPurge();
+        this.purgeTimer = Timer.builder(PURGE_METRIC_NAME).register(meterRegistry);
+        this.activePurgeTimer = LongTaskTimer.builder(PURGE_METRIC_NAME + ".active").register(meterRegistry);
+        this.purgedUsers = Counter.builder(PURGE_METRIC_NAME + ".deleted").register(meterRegistry);
+        this.purgedChunks = Counter.builder(PURGE_METRIC_NAME + ".chunks").register(meterRegistry);
+        this.skippedPurges = Counter.builder(PURGE_METRIC_NAME + ".skipped").register(meterRegistry);
     }
 
     @Transactional
@@ -68,7 +132,7 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minusSeconds(86400)))
-            .publishOn(Schedulers.boundedElastic())
+            .transform(passwordHashingExecutor::publishOn)
             .map(
                 user -> {
                     user.setPassword(passwordEncoder.encode(newPassword));
@@ -93,7 +157,8 @@ public class UserService {
                     return user;
                 }
             )
-            .flatMap(this::saveUser);
+            .flatMap(this::saveUser)
+            .flatMap(user -> mailService.sendPasswordResetMail(user).thenReturn(user));
     }
 
     @Transactional
@@ -103,7 +168,7 @@ public class UserService {
             .flatMap(
                 existingUser -> {
                     if (!existingUser.isActivated()) {
-                        return userRepository.delete(existingUser);
+                        return userRepository.delete(existingUser).doOnSuccess(ignored -> userCache.evict(existingUser));
                     } else {
                         return Mono.error(new UsernameAlreadyUsedException());
                     }
@@ -113,13 +178,13 @@ public class UserService {
             .flatMap(
                 existingUser -> {
                     if (!existingUser.isActivated()) {
-                        return userRepository.delete(existingUser);
+                        return userRepository.delete(existingUser).doOnSuccess(ignored -> userCache.evict(existingUser));
                     } else {
                         return Mono.error(new EmailAlreadyUsedException());
                     }
                 }
             )
-            .publishOn(Schedulers.boundedElastic())
+            .transform(passwordHashingExecutor::publishOn)
             .then(
                 Mono.fromCallable(
                     () -> {
@@ -152,7 +217,8 @@ public class UserService {
                         .thenReturn(newUser)
                         .doOnNext(user -> user.setAuthorities(authorities))
                         .flatMap(this::saveUser)
-                        .doOnNext(user -> log.debug("Created Information for User: {}", user));
+                        .doOnNext(user -> log.debug("Created Information for User: {}", user))
+                        .flatMap(user -> mailService.sendActivationEmail(user).thenReturn(user));
                 }
             );
     }
@@ -177,7 +243,7 @@ public class UserService {
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
             .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
+            .transform(passwordHashingExecutor::publishOn)
             .map(
                 newUser -> {
                     String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
@@ -189,7 +255,8 @@ public class UserService {
                 }
             )
             .flatMap(this::saveUser)
-            .doOnNext(user1 -> log.debug("Created Information for User: {}", user1));
+            .doOnNext(user1 -> log.debug("Created Information for User: {}", user1))
+            .flatMap(user1 -> mailService.sendCreationEmail(user1).thenReturn(user1));
     }
 
     /**
@@ -233,6 +300,7 @@ public class UserService {
         return userRepository
             .findOneByLogin(login)
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .doOnNext(userCache::evict)
             .doOnNext(user -> log.debug("Deleted User: {}", user))
             .then();
     }
@@ -289,7 +357,8 @@ public class UserService {
                                     .fromIterable(user.getAuthorities())
                                     .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
                                     .then(Mono.just(savedUser))
-                        );
+                        )
+                        .doOnNext(userCache::evict);
                 }
             );
     }
@@ -299,7 +368,7 @@ public class UserService {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
+            .transform(passwordHashingExecutor::publishOn)
             .map(
                 user -> {
                     String currentEncryptedPassword = user.getPassword();
@@ -333,32 +402,130 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+        return userCache.findOneWithAuthoritiesByLogin(login);
     }
 
     @Transactional(readOnly = true)
     public Mono<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(userCache::findOneWithAuthoritiesByLogin);
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). The purge runs in the background, so that it does not
+     * hold the scheduling thread.
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void removeNotActivatedUsers() {
-        removeNotActivatedUsersReactively().blockLast();
+        removeNotActivatedUsersReactively()
+            .subscribe(
+                count -> log.info("Deleted {} not activated users", count),
+                error -> log.error("Could not delete the not activated users", error)
+            );
     }
 
-    @Transactional
-    public Flux<User> removeNotActivatedUsersReactively() {
+    /**
+     * Delete the not activated users in chunks of {@code application.user-purge.chunk-size}, pausing between chunks so
+     * that the purge of a spam wave does not saturate the database.
+     * <p>
+     * The purge runs on one instance at a time: the other instances skip it while it holds the job lock, which it
+     * extends after each chunk.
+     *
+     * @return the number of deleted users, {@code 0} if the purge is running on another instance.
+     */
+    public Mono<Long> removeNotActivatedUsersReactively() {
+        LocalDateTime createdBefore = LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC);
+        return Mono.usingWhen(
+            lockPurge(),
+            locked -> {
+                if (!locked) {
+                    log.debug("Not activated users are being deleted by another instance");
+                    skippedPurges.increment();
+                    return Mono.just(0L);
+                }
+                return removeNotActivatedUsers(createdBefore);
+            },
+            locked -> locked ? jobLockRepository.unlock(PURGE_JOB_NAME, instanceId, now()) : Mono.empty()
+        );
+    }
+
+    private Mono<Long> removeNotActivatedUsers(LocalDateTime createdBefore) {
+        int chunkSize = userPurge.getChunkSize();
+        Duration pause = Duration.ofMillis(userPurge.getPauseBetweenChunksInMillis());
+        LongTaskTimer.Sample activeSample = activePurgeTimer.start();
+        long start = System.nanoTime();
+        return removeNotActivatedUsersChunk(createdBefore, chunkSize)
+            .expand(
+                chunk ->
+                    chunk.getT1() < chunkSize
+                        ? Mono.empty()
+                        : lockPurge()
+                            .delaySubscription(pause)
+                            .flatMap(
+                                locked -> {
+                                    if (!locked) {
+                                        log.warn("Lost the lock of the not activated users purge, stopping");
+                                        return Mono.empty();
+                                    }
+                                    return removeNotActivatedUsersChunk(createdBefore, chunkSize);
+                                }
+                            )
+            )
+            .reduce(0L, (count, chunk) -> count + chunk.getT2())
+            .doOnNext(
+                count -> {
+                    if (count > 0) {
+                        // the deleted users are not loaded, so they cannot be evicted one by one
+                        userCache.evictAll();
+                    }
+                }
+            )
+            .doFinally(
+                signal -> {
+                    activeSample.stop();
+                    purgeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            );
+    }
+
+    /**
+     * Delete a chunk of not activated users and their authorities in a single transaction.
+     *
+     * @return the number of selected users, and the number of deleted users.
+     */
+    private Mono<Tuple2<Integer, Integer>> removeNotActivatedUsersChunk(LocalDateTime createdBefore, int chunkSize) {
         return userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
-                LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC)
+            .findIdsByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(createdBefore, chunkSize)
+            .collectList()
+            .flatMap(
+                userIds -> {
+                    if (userIds.isEmpty()) {
+                        return Mono.just(Tuples.of(0, 0));
+                    }
+                    return userRepository
+                        .deleteNotActivatedUserAuthorities(userIds)
+                        .then(userRepository.deleteNotActivatedUsers(userIds))
+                        .as(transactionalOperator::transactional)
+                        .map(count -> Tuples.of(userIds.size(), count));
+                }
             )
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
-            .doOnNext(user -> log.debug("Deleted User: {}", user));
+            .doOnNext(
+                chunk -> {
+                    log.debug("Deleted {} not activated users", chunk.getT2());
+                    purgedChunks.increment();
+                    purgedUsers.increment(chunk.getT2());
+                }
+            );
+    }
+
+    private Mono<Boolean> lockPurge() {
+        LocalDateTime now = now();
+        return jobLockRepository.lock(PURGE_JOB_NAME, instanceId, now, now.plusMinutes(userPurge.getLockTimeoutInMinutes()));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
     }
 
     /**
@@ -0,0 +1,113 @@
+package com.myapp.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A response kept in memory, to be written again to other exchanges.
+ */
+final class BufferedResponse {
+
+    private final HttpStatus status;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    BufferedResponse(HttpStatus status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    HttpStatus getStatus() {
+        return status;
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Write this response to the response of another exchange.
+     *
+     * @param response the response to write to.
+     * @return a {@link Mono} completing when the response is written.
+     */
+    Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * A response decorator copying the body it writes, up to a maximum size, to make a {@link BufferedResponse} of it.
+     * <p>
+     * Streamed responses, responses setting cookies, and responses larger than the maximum size are not buffered.
+     */
+    static final class Recorder extends ServerHttpResponseDecorator {
+
+        private final int maxBodySize;
+
+        private volatile ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        Recorder(ServerHttpResponse delegate, int maxBodySize) {
+            super(delegate);
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::record));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            content = null;
+            return super.writeAndFlushWith(body);
+        }
+
+        /**
+         * Get the recorded response, once it has been written.
+         *
+         * @return the recorded response, or {@code null} if it cannot be buffered.
+         */
+        BufferedResponse getBufferedResponse() {
+            if (content == null || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                return null;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            HttpStatus status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+            return new BufferedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), content.toByteArray());
+        }
+
+        private void record(DataBuffer dataBuffer) {
+            if (content == null) {
+                return;
+            }
+            int count = dataBuffer.readableByteCount();
+            if (content.size() + count > maxBodySize) {
+                content = null;
+                return;
+            }
+            byte[] bytes = new byte[count];
+            // a view of the buffer, which leaves its read position untouched for the actual write
+            dataBuffer.asByteBuffer().get(bytes);
+            content.write(bytes, 0, count);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.myapp.web.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Protects the gateway from a failing or slow service, with one circuit breaker and one bulkhead per service.
+ * <p>
+ * The circuit of a service opens when the failure rate of its last calls reaches the configured threshold: calls are
+ * then rejected right away, until a few trial calls succeed. A call fails when it errors - including when the service
+ * does not answer within the gateway response timeout - or when the service answers with a server error. The bulkhead
+ * rejects calls beyond the configured number of concurrent calls, so that a slow service cannot hold all the
+ * connections of the gateway. Rejected calls get a {@code 503 (Service Unavailable)}.
+ * <p>
+ * Settings are configured in {@code application.gateway.circuit-breaker}, with optional overrides by service ID.
+ */
+@Component
+public class CircuitBreakerFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerFilter.class);
+
+    private static final String METRIC_NAME = "gateway.circuit-breaker";
+
+    private static final String LOAD_BALANCED_SCHEME = "lb";
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Map<String, ServiceCircuit> circuits = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Gateway.CircuitBreaker circuitBreaker;
+
+    private final MeterRegistry meterRegistry;
+
+    public CircuitBreakerFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.circuitBreaker = applicationProperties.getGateway().getCircuitBreaker();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!circuitBreaker.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        String serviceId = getServiceId(route);
+        ServiceCircuit circuit = circuits.get(serviceId);
+        if (circuit == null) {
+            circuit = circuits.computeIfAbsent(serviceId, this::createCircuit);
+        }
+        ServiceCircuit serviceCircuit = circuit;
+
+        if (!serviceCircuit.bulkhead.tryAcquire()) {
+            log.debug("Bulkhead full for {}", serviceId);
+            serviceCircuit.bulkheadRejected.increment();
+            return reject(exchange.getResponse(), 1);
+        }
+        if (!serviceCircuit.tryAcquirePermission(System.nanoTime())) {
+            serviceCircuit.bulkhead.release();
+            serviceCircuit.openRejected.increment();
+            return reject(exchange.getResponse(), serviceCircuit.getRetryAfterSeconds(System.nanoTime()));
+        }
+        return chain
+            .filter(exchange)
+            .doFinally(
+                signal -> {
+                    serviceCircuit.bulkhead.release();
+                    if (signal == SignalType.CANCEL) {
+                        serviceCircuit.onCancel();
+                        return;
+                    }
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    serviceCircuit.onResult(
+                        signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError()),
+                        System.nanoTime()
+                    );
+                }
+            );
+    }
+
+    @Override
+    public int getOrder() {
+        // after the rate limiting, so that calls rejected by the rate limiting do not take a place in the bulkhead
+        return -5;
+    }
+
+    State getState(String serviceId) {
+        ServiceCircuit circuit = circuits.get(serviceId);
+        return circuit != null ? circuit.state : State.CLOSED;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, long retryAfterSeconds) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private ServiceCircuit createCircuit(String serviceId) {
+        ServiceCircuit circuit = new ServiceCircuit(serviceId, circuitBreaker.getSettings(serviceId));
+        Gauge.builder(METRIC_NAME + ".state", circuit, c -> c.state.ordinal()).tag("service", serviceId).register(meterRegistry);
+        Gauge
+            .builder(METRIC_NAME + ".bulkhead.available", circuit.bulkhead, Semaphore::availablePermits)
+            .tag("service", serviceId)
+            .register(meterRegistry);
+        return circuit;
+    }
+
+    private static String getServiceId(Route route) {
+        if (LOAD_BALANCED_SCHEME.equals(route.getUri().getScheme()) && route.getUri().getHost() != null) {
+            return route.getUri().getHost().toLowerCase();
+        }
+        return route.getId();
+    }
+
+    /**
+     * The circuit breaker and the bulkhead of a service.
+     * <p>
+     * The outcomes of the last calls are kept in a ring, whose failure rate is checked after each call while the
+     * circuit is closed. Once the circuit has been open for the configured duration, it lets a few trial calls through,
+     * and closes or opens again depending on their failure rate.
+     */
+    private final class ServiceCircuit {
+
+        private final String serviceId;
+
+        private final ApplicationProperties.Gateway.CircuitBreakerSettings settings;
+
+        private final Semaphore bulkhead;
+
+        private final Counter openRejected;
+
+        private final Counter bulkheadRejected;
+
+        private final Map<String, Counter> transitions = new HashMap<>();
+
+        private final boolean[] outcomes;
+
+        private volatile State state = State.CLOSED;
+
+        private int calls;
+
+        private int failures;
+
+        private int position;
+
+        private long openedAt;
+
+        private int trialCallsStarted;
+
+        private int trialCalls;
+
+        private int trialFailures;
+
+        private ServiceCircuit(String serviceId, ApplicationProperties.Gateway.CircuitBreakerSettings settings) {
+            this.serviceId = serviceId;
+            this.settings = settings;
+            this.bulkhead = new Semaphore(settings.getMaxConcurrentCalls());
+            this.outcomes = new boolean[Math.max(1, settings.getSlidingWindowSize())];
+            this.openRejected = rejectedCounter("open");
+            this.bulkheadRejected = rejectedCounter("bulkhead");
+        }
+
+        private Counter rejectedCounter(String reason) {
+            return Counter.builder(METRIC_NAME + ".rejected").tag("service", serviceId).tag("reason", reason).register(meterRegistry);
+        }
+
+        private synchronized boolean tryAcquirePermission(long now) {
+            if (state == State.OPEN) {
+                if (now - openedAt < TimeUnit.SECONDS.toNanos(settings.getWaitDurationInOpenStateInSeconds())) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialCallsStarted >= settings.getPermittedCallsInHalfOpenState()) {
+                    return false;
+                }
+                trialCallsStarted++;
+            }
+            return true;
+        }
+
+        private synchronized void onResult(boolean failed, long now) {
+            if (state == State.HALF_OPEN) {
+                trialCalls++;
+                if (failed) {
+                    trialFailures++;
+                }
+                if (trialCalls >= settings.getPermittedCallsInHalfOpenState()) {
+                    if (isAboveThreshold(trialFailures, trialCalls)) {
+                        open(now);
+                    } else {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // a call started before the circuit opened
+                return;
+            }
+            if (calls == outcomes.length) {
+                if (outcomes[position]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            outcomes[position] = failed;
+            if (failed) {
+                failures++;
+            }
+            position = (position + 1) % outcomes.length;
+            if (calls >= settings.getMinimumNumberOfCalls() && isAboveThreshold(failures, calls)) {
+                open(now);
+            }
+        }
+
+        private synchronized void onCancel() {
+            if (state == State.HALF_OPEN && trialCallsStarted > 0) {
+                // give the trial call to another request
+                trialCallsStarted--;
+            }
+        }
+
+        private long getRetryAfterSeconds(long now) {
+            long remaining = TimeUnit.SECONDS.toNanos(settings.getWaitDurationInOpenStateInSeconds()) - (now - openedAt);
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999L));
+        }
+
+        private boolean isAboveThreshold(int failureCount, int callCount) {
+            return failureCount * 100L >= (long) settings.getFailureRateThreshold() * callCount;
+        }
+
+        private void open(long now) {
+            openedAt = now;
+            transitionTo(State.OPEN);
+        }
+
+        private void transitionTo(State newState) {
+            State oldState = state;
+            state = newState;
+            calls = 0;
+            failures = 0;
+            position = 0;
+            trialCallsStarted = 0;
+            trialCalls = 0;
+            trialFailures = 0;
+            if (newState == State.OPEN) {
+                log.warn("Circuit of {} is now {}, was {}", serviceId, newState, oldState);
+            } else {
+                log.info("Circuit of {} is now {}, was {}", serviceId, newState, oldState);
+            }
+            transitions.computeIfAbsent(oldState + ">" + newState, key -> transitionCounter(oldState, newState)).increment();
+        }
+
+        private Counter transitionCounter(State from, State to) {
+            return Counter
+                .builder(METRIC_NAME + ".transitions")
+                .tag("service", serviceId)
+                .tag("from", from.name().toLowerCase())
+                .tag("to", to.name().toLowerCase())
+                .register(meterRegistry);
+        }
+    }
+}
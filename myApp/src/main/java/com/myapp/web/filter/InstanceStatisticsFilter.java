@@ -0,0 +1,201 @@
+package com.myapp.web.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Measures the calls proxied to each instance chosen by the load balancer, to score the instances.
+ * <p>
+ * The score of an instance is its exponentially weighted response time, multiplied by its number of outstanding
+ * requests plus one: the lower, the better. Older response times weigh less with a decay of {@value #DECAY_SECONDS}
+ * seconds, which also applies while an instance is not called, so that a slow instance is tried again once it has
+ * been left alone for a while. Failed calls count as at least {@value #FAILURE_PENALTY_MILLIS} ms, so that an instance
+ * failing fast does not attract the traffic.
+ */
+@Component
+public class InstanceStatisticsFilter implements GlobalFilter, Ordered {
+
+    private static final String METRIC_NAME = "gateway.loadbalancer.instance";
+
+    private static final long DECAY_SECONDS = 10;
+
+    private static final long FAILURE_PENALTY_MILLIS = 1000;
+
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(DECAY_SECONDS);
+
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.MILLISECONDS.toNanos(FAILURE_PENALTY_MILLIS);
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<String, Map<String, InstanceStatistics>> statistics = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public InstanceStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+        InstanceStatistics stats = getStatistics(response.getServer());
+        stats.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        return chain
+            .filter(exchange)
+            .doFinally(
+                signal -> {
+                    stats.outstanding.decrementAndGet();
+                    if (signal == SignalType.CANCEL) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    long responseTime = now - start;
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        responseTime = Math.max(responseTime, FAILURE_PENALTY_NANOS);
+                    }
+                    stats.record(responseTime, now);
+                }
+            );
+    }
+
+    @Override
+    public int getOrder() {
+        // right after the load balancer has chosen the instance, until the response of the instance is received
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    /**
+     * Get the score of an instance.
+     *
+     * @param instance the instance.
+     * @return the score of the instance, {@code 0} if it has not been called yet.
+     */
+    public double getScore(ServiceInstance instance) {
+        Map<String, InstanceStatistics> serviceStatistics = statistics.get(getServiceKey(instance.getServiceId()));
+        InstanceStatistics stats = serviceStatistics != null ? serviceStatistics.get(getInstanceKey(instance)) : null;
+        return stats != null ? stats.getScore(System.nanoTime()) : 0;
+    }
+
+    /**
+     * Drop the statistics of the instances of a service which are not registered anymore.
+     *
+     * @param serviceId the id of the service, in any case: the registry returns it in upper case, while the routes use
+     * it in lower case.
+     * @param instances the registered instances of the service.
+     */
+    public void retainInstances(String serviceId, List<ServiceInstance> instances) {
+        Map<String, InstanceStatistics> serviceStatistics = statistics.get(getServiceKey(serviceId));
+        if (serviceStatistics == null || serviceStatistics.size() <= instances.size()) {
+            return;
+        }
+        Set<String> keys = instances.stream().map(InstanceStatisticsFilter::getInstanceKey).collect(Collectors.toSet());
+        for (String key : new ArrayList<>(serviceStatistics.keySet())) {
+            if (!keys.contains(key)) {
+                InstanceStatistics removed = serviceStatistics.remove(key);
+                if (removed != null) {
+                    removed.meters.forEach(meterRegistry::remove);
+                }
+            }
+        }
+    }
+
+    private InstanceStatistics getStatistics(ServiceInstance instance) {
+        String serviceKey = getServiceKey(instance.getServiceId());
+        Map<String, InstanceStatistics> serviceStatistics = statistics.computeIfAbsent(serviceKey, key -> new ConcurrentHashMap<>());
+        InstanceStatistics stats = serviceStatistics.get(getInstanceKey(instance));
+        if (stats == null) {
+            stats = serviceStatistics.computeIfAbsent(getInstanceKey(instance), key -> createStatistics(serviceKey, key));
+        }
+        return stats;
+    }
+
+    private InstanceStatistics createStatistics(String serviceId, String key) {
+        InstanceStatistics stats = new InstanceStatistics();
+        Tags tags = Tags.of("service", serviceId, "instance", key);
+        stats.meters.add(
+            Gauge.builder(METRIC_NAME + ".score", stats, s -> s.getScore(System.nanoTime())).tags(tags).register(meterRegistry)
+        );
+        stats.meters.add(
+            Gauge
+                .builder(METRIC_NAME + ".response-time", stats, s -> s.getResponseTime(System.nanoTime()) / NANOS_PER_MILLI)
+                .tags(tags)
+                .baseUnit("milliseconds")
+                .register(meterRegistry)
+        );
+        stats.meters.add(
+            Gauge.builder(METRIC_NAME + ".outstanding", stats.outstanding, AtomicInteger::get).tags(tags).register(meterRegistry)
+        );
+        return stats;
+    }
+
+    private static String getServiceKey(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    private static String getInstanceKey(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceStatistics {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final List<Meter> meters = new ArrayList<>();
+        private double responseTime;
+        private long lastUpdate;
+        private boolean measured;
+
+        private synchronized void record(long sample, long now) {
+            if (measured) {
+                double weight = Math.exp(-Math.max(0, now - lastUpdate) / DECAY_NANOS);
+                responseTime = responseTime * weight + sample * (1 - weight);
+            } else {
+                responseTime = sample;
+                measured = true;
+            }
+            lastUpdate = now;
+        }
+
+        private synchronized double getResponseTime(long now) {
+            return measured ? responseTime * Math.exp(-Math.max(0, now - lastUpdate) / DECAY_NANOS) : 0;
+        }
+
+        private double getScore(long now) {
+            double currentResponseTime = getResponseTime(now);
+            int currentOutstanding = outstanding.get();
+            if (currentResponseTime == 0 && currentOutstanding > 0) {
+                // not measured yet, but already busy: do not send everything to it until its first response
+                return (double) FAILURE_PENALTY_NANOS * currentOutstanding;
+            }
+            return currentResponseTime * (currentOutstanding + 1);
+        }
+    }
+}
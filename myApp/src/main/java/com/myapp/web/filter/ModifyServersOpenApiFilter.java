@@ -1,51 +1,105 @@
 package com.myapp.web.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Rewrites the {@code servers} of the OpenAPI documents of the microservices, so that they point to the gateway routes.
+ * <p>
+ * Rewritten documents are cached by path, and served with an ETag without calling the microservice again. A document is
+ * evicted when the discovery metadata of its service changes, for instance when a new version of the service registers,
+ * and the least recently used documents are evicted once the documents exceed {@value #MAX_CACHED_SIZE_IN_BYTES} bytes.
+ * The metadata is read from the reactive discovery client, so the gateway threads never wait for the registry.
+ */
 @Component
 public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(ModifyServersOpenApiFilter.class);
 
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String API_DOCS_PATH = "/v3/api-docs";
+
+    private static final String SERVICES_PREFIX = "/services/";
+
+    private static final long MAX_CACHED_SIZE_IN_BYTES = 16 * 1024 * 1024;
+
+    private final Map<String, CachedDocument> documents = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedSize;
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    public ModifyServersOpenApiFilter(ReactiveDiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
-        if (path.startsWith("/services") && path.contains("/v3/api-docs")) {
+        if (path.startsWith("/services") && path.contains(API_DOCS_PATH)) {
+            // documents are cached by path, so documents selected by query parameters are always rewritten
+            boolean cacheable = exchange.getRequest().getURI().getRawQuery() == null;
+            CachedDocument document = cacheable ? getCachedDocument(path) : null;
+            if (document != null) {
+                return writeCachedDocument(exchange, document);
+            }
             ServerHttpResponse originalResponse = exchange.getResponse();
             DataBufferFactory bufferFactory = originalResponse.bufferFactory();
-            ServerHttpResponseDecorator decoratedResponse = createModifyServersOpenApiInterceptor(path, originalResponse, bufferFactory);
+            ModifyServersOpenApiInterceptor decoratedResponse = createModifyServersOpenApiInterceptor(
+                path,
+                originalResponse,
+                bufferFactory
+            );
+            decoratedResponse.cacheable = cacheable;
 
-            // replace response with decorator
-            return chain.filter(exchange.mutate().response(decoratedResponse).build());
+            // replace response with decorator, once the version of the service the document belongs to is known
+            return getServiceVersion(getServiceId(path))
+                .flatMap(
+                    version -> {
+                        decoratedResponse.version = version;
+                        return chain.filter(exchange.mutate().response(decoratedResponse).build());
+                    }
+                );
         } else {
             return chain.filter(exchange);
         }
@@ -56,6 +110,104 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         return -1;
     }
 
+    /**
+     * Evict the documents of the services whose instances or metadata have changed since the documents were cached.
+     */
+    @EventListener(HeartbeatEvent.class)
+    public void evictChangedDocuments() {
+        Set<String> serviceIds;
+        synchronized (this) {
+            serviceIds = documents.values().stream().map(document -> document.serviceId).collect(Collectors.toSet());
+        }
+        Flux
+            .fromIterable(serviceIds)
+            .concatMap(serviceId -> getServiceVersion(serviceId).map(version -> Map.entry(serviceId, version)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .subscribe(
+                this::evictDocuments,
+                error -> log.warn("Could not check the versions of the cached api-docs: {}", error.getMessage())
+            );
+    }
+
+    synchronized int getCachedDocumentCount() {
+        return documents.size();
+    }
+
+    synchronized long getCachedSize() {
+        return cachedSize;
+    }
+
+    private synchronized CachedDocument getCachedDocument(String path) {
+        return documents.get(path);
+    }
+
+    private synchronized void putCachedDocument(String path, CachedDocument document) {
+        removeCachedDocument(path);
+        documents.put(path, document);
+        cachedSize += document.size;
+        Iterator<CachedDocument> leastRecentlyUsed = documents.values().iterator();
+        while (cachedSize > MAX_CACHED_SIZE_IN_BYTES && leastRecentlyUsed.hasNext()) {
+            cachedSize -= leastRecentlyUsed.next().size;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private void removeCachedDocument(String path) {
+        CachedDocument removed = documents.remove(path);
+        if (removed != null) {
+            cachedSize -= removed.size;
+        }
+    }
+
+    private synchronized void evictDocuments(Map<String, String> versions) {
+        Iterator<CachedDocument> iterator = documents.values().iterator();
+        while (iterator.hasNext()) {
+            CachedDocument document = iterator.next();
+            String version = versions.get(document.serviceId);
+            if (version != null && !version.equals(document.version)) {
+                cachedSize -= document.size;
+                iterator.remove();
+            }
+        }
+    }
+
+    private Mono<Void> writeCachedDocument(ServerWebExchange exchange, CachedDocument document) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(document.etag);
+        if (request.getHeaders().getIfNoneMatch().contains(document.etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        byte[] body = document.body;
+        List<String> acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.stream().anyMatch(encoding -> encoding.contains("gzip"))) {
+            body = document.getGzippedBody();
+            response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String getServiceId(String path) {
+        String service = path.substring(Math.min(path.length(), SERVICES_PREFIX.length()));
+        int end = service.indexOf('/');
+        return (end < 0 ? service : service.substring(0, end)).toLowerCase();
+    }
+
+    /**
+     * The instances of a service and their metadata, which change when the service is redeployed.
+     */
+    private Mono<String> getServiceVersion(String serviceId) {
+        return discoveryClient
+            .getInstances(serviceId)
+            .map(instance -> instance.getInstanceId() + '@' + instance.getUri() + instance.getMetadata())
+            .sort()
+            .collect(Collectors.joining(","));
+    }
+
     public ModifyServersOpenApiInterceptor createModifyServersOpenApiInterceptor(
         String path,
         ServerHttpResponse originalResponse,
@@ -69,7 +221,9 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         private final String path;
         private final ServerHttpResponse originalResponse;
         private final DataBufferFactory bufferFactory;
-        private String rewritedBody = "";
+        private byte[] rewritedBody = new byte[0];
+        private boolean cacheable = true;
+        private String version = "";
 
         private ModifyServersOpenApiInterceptor(String path, ServerHttpResponse originalResponse, DataBufferFactory bufferFactory) {
             super(originalResponse);
@@ -79,12 +233,12 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         }
 
         public String getRewritedBody() {
-            return rewritedBody;
+            return new String(rewritedBody, StandardCharsets.UTF_8);
         }
 
         @Override
         public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
-            rewritedBody = "";
+            rewritedBody = new byte[0];
             if (body instanceof Flux) {
                 Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) body;
 
@@ -95,21 +249,16 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         }
 
         private DataBuffer rewriteBodyWithServers(List<? extends DataBuffer> dataBuffers) {
-            DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
-            DataBuffer join = dataBufferFactory.join(dataBuffers);
-            byte[] content = new byte[join.readableByteCount()];
-            join.read(content);
+            // join the buffers of the response factory, which composes pooled buffers instead of copying them
+            DataBuffer join = bufferFactory.join(dataBuffers);
+            int readPosition = join.readPosition();
+            String serviceId = getServiceId(path);
 
-            // release memory
-            DataBufferUtils.release(join);
-            String strBody = contentToString(content);
-
-            try {
+            try (InputStream content = contentToStream(join)) {
                 // create custom server
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode jsonBody = mapper.readTree(strBody);
+                JsonNode jsonBody = mapper.readTree(content);
                 ObjectNode serversToJson = mapper.createObjectNode();
-                serversToJson.set("url", mapper.valueToTree(path.replace("/v3/api-docs", "")));
+                serversToJson.set("url", mapper.valueToTree(path.replace(API_DOCS_PATH, "")));
                 serversToJson.set("description", mapper.valueToTree("added by global filter"));
 
                 // add custom server
@@ -117,30 +266,36 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
                 servers.add(serversToJson);
                 ((ObjectNode) jsonBody).set("servers", servers);
 
-                rewritedBody = jsonBody.toString();
-                return rewritedBodyToDataBuffer();
-            } catch (JsonProcessingException e) {
+                rewritedBody = mapper.writeValueAsBytes(jsonBody);
+            } catch (IOException | ClassCastException e) {
                 log.error("Error when modify servers from api-doc of {}: {}", path, e.getMessage());
+                join.readPosition(readPosition);
+                return join;
             }
-            return join;
-        }
 
-        private DataBuffer rewritedBodyToDataBuffer() {
-            if (isZippedResponse()) {
-                byte[] zippedBody = zipContent(rewritedBody);
-                originalResponse.getHeaders().setContentLength(zippedBody.length);
-                return bufferFactory.wrap(zippedBody);
+            // release memory
+            DataBufferUtils.release(join);
+            byte[] gzippedBody = isZippedResponse() ? zipContent(rewritedBody) : null;
+            CachedDocument document = new CachedDocument(serviceId, version, rewritedBody, gzippedBody);
+            if (cacheable && (getStatusCode() == null || getStatusCode() == HttpStatus.OK)) {
+                putCachedDocument(path, document);
             }
-            originalResponse.getHeaders().setContentLength(rewritedBody.getBytes().length);
-            return bufferFactory.wrap(rewritedBody.getBytes());
+            originalResponse.getHeaders().setETag(document.etag);
+            return rewritedBodyToDataBuffer(document);
         }
 
-        private String contentToString(byte[] content) {
+        private DataBuffer rewritedBodyToDataBuffer(CachedDocument document) {
+            byte[] body = isZippedResponse() ? document.getGzippedBody() : document.body;
+            originalResponse.getHeaders().setContentLength(body.length);
+            return bufferFactory.wrap(body);
+        }
+
+        private InputStream contentToStream(DataBuffer content) throws IOException {
+            InputStream stream = content.asInputStream();
             if (isZippedResponse()) {
-                byte[] unzippedContent = unzipContent(content);
-                return new String(unzippedContent, StandardCharsets.UTF_8);
+                return new GZIPInputStream(stream);
             }
-            return new String(content, StandardCharsets.UTF_8);
+            return stream;
         }
 
         private boolean isZippedResponse() {
@@ -150,31 +305,49 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
                 Objects.requireNonNull(originalResponse.getHeaders().get(HttpHeaders.CONTENT_ENCODING)).contains("gzip")
             );
         }
+    }
 
-        private byte[] unzipContent(byte[] content) {
-            try {
-                GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(content));
-                byte[] unzippedContent = gzipInputStream.readAllBytes();
-                gzipInputStream.close();
-                return unzippedContent;
-            } catch (IOException e) {
-                log.error("Error when unzip content during modify servers from api-doc of {}: {}", path, e.getMessage());
-            }
-            return content;
-        }
-
-        private byte[] zipContent(String content) {
-            try {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(content.length());
-                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-                gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
-                gzipOutputStream.flush();
-                gzipOutputStream.close();
-                return byteArrayOutputStream.toByteArray();
-            } catch (IOException e) {
-                log.error("Error when zip content during modify servers from api-doc of {}: {}", path, e.getMessage());
+    private static byte[] zipContent(byte[] content) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(content.length / 4);
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
+            gzipOutputStream.write(content);
+            gzipOutputStream.close();
+            return byteArrayOutputStream.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A rewritten document, with its gzipped form computed on first use - its size only counts the plain body, which the
+     * gzipped form is a fraction of.
+     */
+    private static final class CachedDocument {
+
+        private final String serviceId;
+        private final String version;
+        private final byte[] body;
+        private final String etag;
+        private final int size;
+        private volatile byte[] gzippedBody;
+
+        private CachedDocument(String serviceId, String version, byte[] body, byte[] gzippedBody) {
+            this.serviceId = serviceId;
+            this.version = version;
+            this.body = body;
+            this.gzippedBody = gzippedBody;
+            this.etag = "W/\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            this.size = body.length;
+        }
+
+        private byte[] getGzippedBody() {
+            byte[] result = gzippedBody;
+            if (result == null) {
+                result = zipContent(body);
+                gzippedBody = result;
             }
-            return content.getBytes();
+            return result;
         }
     }
 }
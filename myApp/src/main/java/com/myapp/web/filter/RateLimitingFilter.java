@@ -0,0 +1,156 @@
+package com.myapp.web.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limits the number of calls a user can make on a route, using one token bucket per user and route.
+ * <p>
+ * Limits are configured in {@code application.gateway.rate-limiting}, with a default limit and optional overrides
+ * by route ID. Buckets that have not been used for the configured idle timeout are evicted.
+ */
+@Component
+public class RateLimitingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+
+    private static final String METRIC_NAME = "gateway.rate-limiting";
+
+    private final Map<String, TrackedBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Gateway.RateLimiting rateLimiting;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitingFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.rateLimiting = applicationProperties.getGateway().getRateLimiting();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(METRIC_NAME + ".buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!rateLimiting.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        String routeId = route.getId();
+        String key = routeId + ':' + resolveUser(exchange);
+        TrackedBucket trackedBucket = buckets.get(key);
+        if (trackedBucket == null) {
+            trackedBucket = buckets.computeIfAbsent(key, k -> new TrackedBucket(createBucket(routeId)));
+        }
+        trackedBucket.lastAccess = System.nanoTime();
+
+        ConsumptionProbe probe = trackedBucket.bucket.tryConsumeAndReturnRemaining(1);
+        ServerHttpResponse response = exchange.getResponse();
+        if (probe.isConsumed()) {
+            response.getHeaders().set(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+            return chain.filter(exchange);
+        }
+        log.debug("Rate limit exceeded for {}", key);
+        rejectedCounters.computeIfAbsent(routeId, this::createRejectedCounter).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return -10;
+    }
+
+    /**
+     * Evict the buckets that have not been used for the configured idle timeout.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long idleSince = System.nanoTime() - TimeUnit.SECONDS.toNanos(rateLimiting.getIdleTimeoutInSeconds());
+        buckets.values().removeIf(trackedBucket -> trackedBucket.lastAccess - idleSince < 0);
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private Bucket createBucket(String routeId) {
+        long limit = rateLimiting.getLimit();
+        long durationInSeconds = rateLimiting.getDurationInSeconds();
+        ApplicationProperties.Gateway.RateLimiting.Limit routeLimit = rateLimiting.getRoutes().get(routeId);
+        if (routeLimit != null && routeLimit.getLimit() != null) {
+            limit = routeLimit.getLimit();
+        }
+        if (routeLimit != null && routeLimit.getDurationInSeconds() != null) {
+            durationInSeconds = routeLimit.getDurationInSeconds();
+        }
+        Refill refill = Refill.greedy(limit, Duration.ofSeconds(durationInSeconds));
+        // built directly rather than through Bucket4j.builder(), which loads the JCache extension and needs the JCache API
+        return new LocalBucketBuilder().addLimit(Bandwidth.classic(limit, refill)).build();
+    }
+
+    private Counter createRejectedCounter(String routeId) {
+        return Counter.builder(METRIC_NAME + ".rejected").tag("route", routeId).register(meterRegistry);
+    }
+
+    /**
+     * Resolve the login verified by {@link JWTFilter}, falling back to the client address for anonymous calls.
+     */
+    private String resolveUser(ServerWebExchange exchange) {
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        if (authentication != null) {
+            return authentication.getName();
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return remoteAddress.getAddress().getHostAddress();
+        }
+        return "anonymous";
+    }
+
+    private static final class TrackedBucket {
+
+        private final Bucket bucket;
+
+        private volatile long lastAccess;
+
+        private TrackedBucket(Bucket bucket) {
+            this.bucket = bucket;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.myapp.web.filter;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Coalesces identical GET requests in flight: only the first one is handled, and its response is shared with the
+ * others, which would otherwise all reach the services or the database at the same time.
+ * <p>
+ * Requests are identical when they have the same path, query and content negotiation headers, and come from the same
+ * user - or from users with the same authorities, for the paths listed as shared only. Responses which are streamed, set
+ * cookies or are larger than the configured size are not shared: the waiting requests are then handled on their own.
+ * <p>
+ * This filter runs for the routes of the gateway as well as for its own endpoints, once the user is authenticated. It is
+ * configured in {@code application.gateway.request-coalescing}, and disabled by default.
+ */
+@Component
+public class RequestCoalescingFilter implements WebFilter, Ordered {
+
+    private static final String METRIC_NAME = "gateway.request-coalescing.requests";
+
+    private static final List<String> KEY_HEADERS = List.of(
+        HttpHeaders.ACCEPT,
+        HttpHeaders.ACCEPT_ENCODING,
+        HttpHeaders.ACCEPT_LANGUAGE,
+        HttpHeaders.IF_NONE_MATCH,
+        HttpHeaders.IF_MODIFIED_SINCE
+    );
+
+    private final Map<String, Sinks.One<BufferedResponse>> flights = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Gateway.RequestCoalescing requestCoalescing;
+
+    private final List<PathPattern> paths;
+
+    private final List<PathPattern> sharedPaths;
+
+    private final Counter forwarded;
+
+    private final Counter coalesced;
+
+    private final Counter fallback;
+
+    public RequestCoalescingFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.requestCoalescing = applicationProperties.getGateway().getRequestCoalescing();
+        PathPatternParser parser = new PathPatternParser();
+        this.paths = requestCoalescing.getPaths().stream().map(parser::parse).collect(Collectors.toList());
+        this.sharedPaths = requestCoalescing.getSharedPaths().stream().map(parser::parse).collect(Collectors.toList());
+        this.forwarded = Counter.builder(METRIC_NAME).tag("result", "forwarded").register(meterRegistry);
+        this.coalesced = Counter.builder(METRIC_NAME).tag("result", "coalesced").register(meterRegistry);
+        this.fallback = Counter.builder(METRIC_NAME).tag("result", "fallback").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!requestCoalescing.isEnabled() || !isCoalescable(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        String key = getKey(exchange);
+        Sinks.One<BufferedResponse> flight = Sinks.one();
+        Sinks.One<BufferedResponse> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return leader
+                .asMono()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(
+                    response -> {
+                        if (response.isPresent()) {
+                            return response.get().writeTo(exchange.getResponse());
+                        }
+                        fallback.increment();
+                        return chain.filter(exchange);
+                    }
+                );
+        }
+        forwarded.increment();
+        BufferedResponse.Recorder recorder = new BufferedResponse.Recorder(
+            exchange.getResponse(),
+            requestCoalescing.getMaxBodySizeInBytes()
+        );
+        return chain
+            .filter(exchange.mutate().response(recorder).build())
+            .doFinally(
+                signal -> {
+                    flights.remove(key, flight);
+                    BufferedResponse response = signal == SignalType.ON_COMPLETE ? recorder.getBufferedResponse() : null;
+                    if (response != null) {
+                        flight.tryEmitValue(response);
+                    } else {
+                        flight.tryEmitEmpty();
+                    }
+                }
+            );
+    }
+
+    @Override
+    public int getOrder() {
+        // after the response cache, so that only the requests it cannot answer are coalesced
+        return 1;
+    }
+
+    int getFlightCount() {
+        return flights.size();
+    }
+
+    private boolean isCoalescable(ServerHttpRequest request) {
+        return (
+            HttpMethod.GET.equals(request.getMethod()) &&
+            !request.getHeaders().containsKey(HttpHeaders.RANGE) &&
+            paths.stream().anyMatch(path -> path.matches(request.getPath().pathWithinApplication()))
+        );
+    }
+
+    private String getKey(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        key.append('\n').append(getScope(exchange));
+        for (String header : KEY_HEADERS) {
+            key.append('\n').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    private String getScope(ServerWebExchange exchange) {
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        if (authentication == null) {
+            return "";
+        }
+        if (sharedPaths.stream().anyMatch(path -> path.matches(exchange.getRequest().getPath().pathWithinApplication()))) {
+            return (
+                "authorities:" +
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().collect(Collectors.joining(","))
+            );
+        }
+        return "user:" + authentication.getName();
+    }
+}
@@ -0,0 +1,418 @@
+package com.myapp.web.filter;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Caches the responses to GET requests in memory, as allowed by their {@code Cache-Control} header.
+ * <p>
+ * A {@code 200 (OK)} response is cached for its {@code s-maxage} or {@code max-age}, unless it is marked
+ * {@code no-store} or {@code no-cache}, sets cookies, or varies on other headers than the content negotiation ones.
+ * Responses to authenticated requests are only served again to the same user, unless they are marked {@code public} or
+ * have an {@code s-maxage}: those are served to the users with the same authorities, since the authorization of the
+ * endpoints is not checked again on a hit. Responses marked {@code private} are not shared, unless their path is in the
+ * configured shared paths. Requests matching the
+ * {@code ETag} of the cached response get a {@code 304 (Not Modified)}.
+ * <p>
+ * Once stale, a response is still served for the {@code stale-while-revalidate} duration while the first request to
+ * find it stale handles the request again in the background, to refresh the cached response. The cache is bounded by
+ * the total size of the responses, and evicts the least recently used ones.
+ * <p>
+ * This filter runs for the routes of the gateway as well as for its own endpoints, once the user is authenticated. It is
+ * configured in {@code application.gateway.response-cache}.
+ */
+@Component
+public class ResponseCacheFilter implements WebFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final String METRIC_NAME = "gateway.response-cache";
+
+    private static final List<String> KEY_HEADERS = List.of(
+        HttpHeaders.ACCEPT,
+        HttpHeaders.ACCEPT_ENCODING,
+        HttpHeaders.ACCEPT_LANGUAGE,
+        HttpHeaders.ORIGIN,
+        HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
+        HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS
+    );
+
+    private static final String ANONYMOUS_PARTITION = "anonymous";
+
+    private final ApplicationProperties.Gateway.ResponseCache responseCache;
+
+    private final List<PathPattern> paths;
+
+    private final List<PathPattern> sharedPaths;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private final Counter hits;
+
+    private final Counter staleHits;
+
+    private final Counter misses;
+
+    public ResponseCacheFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.responseCache = applicationProperties.getGateway().getResponseCache();
+        PathPatternParser parser = new PathPatternParser();
+        this.paths = responseCache.getPaths().stream().map(parser::parse).collect(Collectors.toList());
+        this.sharedPaths = responseCache.getSharedPaths().stream().map(parser::parse).collect(Collectors.toList());
+        this.hits = Counter.builder(METRIC_NAME + ".requests").tag("result", "hit").register(meterRegistry);
+        this.staleHits = Counter.builder(METRIC_NAME + ".requests").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_NAME + ".requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".entries", this, ResponseCacheFilter::getEntryCount).register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", this, ResponseCacheFilter::getSize).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".hit-ratio", this, ResponseCacheFilter::getHitRatio).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!responseCache.isEnabled() || !isCacheable(request)) {
+            return chain.filter(exchange);
+        }
+        String resource = getResource(request);
+        String requestCacheControl = request.getHeaders().getCacheControl();
+        if (requestCacheControl == null || !requestCacheControl.contains("no-cache")) {
+            long now = System.nanoTime();
+            String key = getUserKey(exchange, resource);
+            CachedResponse cached = key != null ? get(key, now) : null;
+            if (cached == null) {
+                key = getSharedKey(exchange, resource);
+                cached = get(key, now);
+            }
+            if (cached != null) {
+                if (cached.isFresh(now)) {
+                    hits.increment();
+                    return serve(exchange, cached, now);
+                }
+                staleHits.increment();
+                CachedResponse stale = cached;
+                return Mono.deferContextual(
+                    context -> {
+                        revalidate(exchange, chain, resource, stale, context);
+                        return serve(exchange, stale, now);
+                    }
+                );
+            }
+        }
+        misses.increment();
+        BufferedResponse.Recorder recorder = new BufferedResponse.Recorder(exchange.getResponse(), responseCache.getMaxEntrySizeInBytes());
+        return chain.filter(exchange.mutate().response(recorder).build()).doOnSuccess(result -> store(exchange, resource, recorder));
+    }
+
+    @Override
+    public int getOrder() {
+        // after the Spring Security filters, which authenticate the user and check the authorization of the path
+        return 0;
+    }
+
+    /**
+     * Remove all the cached responses.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    private double getHitRatio() {
+        double total = hits.count() + staleHits.count() + misses.count();
+        return total == 0 ? 0 : (hits.count() + staleHits.count()) / total;
+    }
+
+    private boolean isCacheable(ServerHttpRequest request) {
+        return (
+            HttpMethod.GET.equals(request.getMethod()) &&
+            !request.getHeaders().containsKey(HttpHeaders.RANGE) &&
+            paths.stream().anyMatch(path -> path.matches(request.getPath().pathWithinApplication()))
+        );
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        String age = String.valueOf(cached.getAgeInSeconds(now));
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(cached.etag);
+            response.getHeaders().setCacheControl(cached.response.getHeaders().getCacheControl());
+            response.getHeaders().set(HttpHeaders.AGE, age);
+            return response.setComplete();
+        }
+        response.getHeaders().set(HttpHeaders.AGE, age);
+        response.getHeaders().setETag(cached.etag);
+        return cached.response.writeTo(response);
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaqueTag = opaqueTag(etag);
+        return ifNoneMatch.stream().anyMatch(tag -> "*".equals(tag) || opaqueTag(tag).equals(opaqueTag));
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Handle the request again in the background, unless another request already does, to refresh a stale response.
+     */
+    private void revalidate(ServerWebExchange exchange, WebFilterChain chain, String resource, CachedResponse stale, ContextView context) {
+        if (!stale.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        DetachedServerHttpResponse detached = new DetachedServerHttpResponse(exchange.getResponse().bufferFactory());
+        BufferedResponse.Recorder recorder = new BufferedResponse.Recorder(detached, responseCache.getMaxEntrySizeInBytes());
+        ServerWebExchange revalidation = exchange
+            .mutate()
+            .request(request -> request.headers(headers -> headers.remove(HttpHeaders.IF_NONE_MATCH)))
+            .response(recorder)
+            .build();
+        chain
+            .filter(revalidation)
+            .doOnSuccess(result -> store(exchange, resource, recorder))
+            .doFinally(signal -> stale.revalidating.set(false))
+            .contextWrite(context)
+            .subscribe(null, error -> log.debug("Could not revalidate {}: {}", resource, error.getMessage()));
+    }
+
+    private void store(ServerWebExchange exchange, String resource, BufferedResponse.Recorder recorder) {
+        BufferedResponse response = recorder.getBufferedResponse();
+        if (response == null || response.getStatus() != HttpStatus.OK || !isVaryAllowed(response.getHeaders())) {
+            return;
+        }
+        Map<String, String> directives = parseCacheControl(response.getHeaders().getCacheControl());
+        if (directives.containsKey("no-store") || directives.containsKey("no-cache")) {
+            return;
+        }
+        long maxAge = parseSeconds(directives.getOrDefault("s-maxage", directives.get("max-age")));
+        long initialAge = parseSeconds(response.getHeaders().getFirst(HttpHeaders.AGE));
+        if (maxAge <= 0 || initialAge >= maxAge) {
+            return;
+        }
+        String key = isShared(exchange, directives) ? getSharedKey(exchange, resource) : getUserKey(exchange, resource);
+        if (key == null) {
+            return;
+        }
+        long staleWhileRevalidate = directives.containsKey("stale-while-revalidate")
+            ? parseSeconds(directives.get("stale-while-revalidate"))
+            : responseCache.getStaleWhileRevalidateInSeconds();
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.AGE);
+        String etag = headers.getETag();
+        if (etag == null) {
+            etag = "W/\"" + DigestUtils.md5DigestAsHex(response.getBody()) + "\"";
+        }
+        CachedResponse cached = new CachedResponse(
+            new BufferedResponse(response.getStatus(), HttpHeaders.readOnlyHttpHeaders(headers), response.getBody()),
+            etag,
+            System.nanoTime() - TimeUnit.SECONDS.toNanos(initialAge),
+            TimeUnit.SECONDS.toNanos(maxAge),
+            TimeUnit.SECONDS.toNanos(staleWhileRevalidate)
+        );
+        if (cached.size <= responseCache.getMaxEntrySizeInBytes()) {
+            put(key, cached);
+        }
+    }
+
+    private synchronized CachedResponse get(String key, long now) {
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.isExpired(now)) {
+            remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void put(String key, CachedResponse cached) {
+        remove(key);
+        entries.put(key, cached);
+        size += cached.size;
+        Iterator<CachedResponse> leastRecentlyUsed = entries.values().iterator();
+        while (size > responseCache.getMaxSizeInBytes() && leastRecentlyUsed.hasNext()) {
+            size -= leastRecentlyUsed.next().size;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.size;
+        }
+    }
+
+    private static boolean isVaryAllowed(HttpHeaders headers) {
+        return headers.getVary().stream().allMatch(vary -> KEY_HEADERS.stream().anyMatch(vary::equalsIgnoreCase));
+    }
+
+    private static Map<String, String> parseCacheControl(String cacheControl) {
+        Map<String, String> directives = new LinkedHashMap<>();
+        if (cacheControl == null) {
+            return directives;
+        }
+        for (String directive : StringUtils.tokenizeToStringArray(cacheControl, ",")) {
+            int separator = directive.indexOf('=');
+            if (separator < 0) {
+                directives.put(directive.toLowerCase(Locale.ROOT), null);
+            } else {
+                String name = directive.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+                String value = directive.substring(separator + 1).trim();
+                directives.put(name, StringUtils.trimTrailingCharacter(StringUtils.trimLeadingCharacter(value, '"'), '"'));
+            }
+        }
+        return directives;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String getResource(ServerHttpRequest request) {
+        StringBuilder resource = new StringBuilder(request.getPath().value());
+        if (request.getURI().getRawQuery() != null) {
+            resource.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : KEY_HEADERS) {
+            resource.append('\n').append(request.getHeaders().getOrEmpty(header));
+        }
+        return resource.toString();
+    }
+
+    /**
+     * Whether a response can be served to other users: responses to authenticated requests are shared only when they say
+     * so, as in RFC 7234 section 3.2, or when their path is configured as shared, since the gateway knows which of its
+     * routes do not depend on the user.
+     */
+    private boolean isShared(ServerWebExchange exchange, Map<String, String> directives) {
+        if (sharedPaths.stream().anyMatch(path -> path.matches(exchange.getRequest().getPath().pathWithinApplication()))) {
+            return true;
+        }
+        if (directives.containsKey("private")) {
+            return false;
+        }
+        return (
+            exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE) == null ||
+            directives.containsKey("public") ||
+            directives.containsKey("s-maxage")
+        );
+    }
+
+    /**
+     * The key of a response to a user, or {@code null} for an anonymous request.
+     */
+    private static String getUserKey(ServerWebExchange exchange, String resource) {
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        return authentication != null ? "user:" + authentication.getName() + '\n' + resource : null;
+    }
+
+    /**
+     * The key of a response shared by all the users with the same authorities.
+     */
+    private static String getSharedKey(ServerWebExchange exchange, String resource) {
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        if (authentication == null) {
+            return ANONYMOUS_PARTITION + '\n' + resource;
+        }
+        String authorities = authentication
+            .getAuthorities()
+            .stream()
+            .map(GrantedAuthority::getAuthority)
+            .sorted()
+            .collect(Collectors.joining(","));
+        return "authorities:" + authorities + '\n' + resource;
+    }
+
+    private static final class CachedResponse {
+
+        private final BufferedResponse response;
+
+        private final String etag;
+
+        private final long storedAt;
+
+        private final long freshNanos;
+
+        private final long staleNanos;
+
+        private final int size;
+
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private CachedResponse(BufferedResponse response, String etag, long storedAt, long freshNanos, long staleNanos) {
+            this.response = response;
+            this.etag = etag;
+            this.storedAt = storedAt;
+            this.freshNanos = freshNanos;
+            this.staleNanos = staleNanos;
+            this.size =
+                response.getBody().length +
+                response
+                    .getHeaders()
+                    .entrySet()
+                    .stream()
+                    .mapToInt(header -> header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum())
+                    .sum();
+        }
+
+        private boolean isFresh(long now) {
+            return now - storedAt < freshNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - storedAt >= freshNanos + staleNanos;
+        }
+
+        private long getAgeInSeconds(long now) {
+            return TimeUnit.NANOSECONDS.toSeconds(now - storedAt);
+        }
+    }
+}
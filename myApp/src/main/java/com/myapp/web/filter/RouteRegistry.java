@@ -0,0 +1,285 @@
+package com.myapp.web.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.web.rest.vm.RouteVM;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Keeps a snapshot of the routes of the gateway, with the instances of their service and live statistics of their calls.
+ * <p>
+ * The snapshot is updated in the background when the routes are refreshed, which the discovery locator does on every
+ * discovery update, so reading it never waits for the route locator or the discovery client. The path and service of a
+ * route are read from its definition, and only the routes whose definition or instances changed are replaced in the
+ * snapshot. The statistics are updated
+ * by this filter: in-flight calls, latency percentiles, and the error rate of the last window of
+ * {@value #ERROR_RATE_WINDOW_MILLIS} ms.
+ */
+@Component
+public class RouteRegistry implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteRegistry.class);
+
+    private static final String METRIC_NAME = "gateway.route.requests";
+
+    private static final Duration REFRESH_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final long ERROR_RATE_WINDOW_MILLIS = 60_000;
+
+    private static final String PATH_PREDICATE = "Path";
+
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String appName;
+
+    private final Map<String, RouteStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final Map<String, RouteEntry> routes = new ConcurrentSkipListMap<>();
+
+    public RouteRegistry(
+        RouteDefinitionLocator routeDefinitionLocator,
+        ReactiveDiscoveryClient discoveryClient,
+        MeterRegistry meterRegistry,
+        @Value("${spring.application.name}") String appName
+    ) {
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.discoveryClient = discoveryClient;
+        this.meterRegistry = meterRegistry;
+        this.appName = appName;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        RouteStatistics routeStatistics = statistics.get(route.getId());
+        if (routeStatistics == null) {
+            routeStatistics = statistics.computeIfAbsent(route.getId(), this::createStatistics);
+        }
+        RouteStatistics stats = routeStatistics;
+        stats.inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        return chain
+            .filter(exchange)
+            .doFinally(
+                signal -> {
+                    stats.inFlight.decrementAndGet();
+                    stats.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    stats.requests.increment();
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        stats.errors.increment();
+                    }
+                }
+            );
+    }
+
+    @Override
+    public int getOrder() {
+        // wrap the other filters, so that the rejections of the rate limiting are counted
+        return -100;
+    }
+
+    /**
+     * Get the snapshot of the routes, with the current statistics of their calls.
+     *
+     * @return the routes, except the one of the gateway itself.
+     */
+    public Mono<List<RouteVM>> getRoutes() {
+        return Mono.fromSupplier(() -> routes.values().stream().map(this::toRouteVM).collect(Collectors.toList()));
+    }
+
+    /**
+     * Update the snapshot of the routes and their instances in the background.
+     * <p>
+     * The refresh events do not tell which routes changed, so the instances of every route are read again, from the local
+     * cache of the discovery client.
+     */
+    @EventListener({ ApplicationReadyEvent.class, RefreshRoutesResultEvent.class })
+    public void refreshRoutes() {
+        routeDefinitionLocator
+            .getRouteDefinitions()
+            .map(this::getEntry)
+            .filter(entry -> !entry.serviceId.equalsIgnoreCase(appName))
+            .concatMap(entry -> discoveryClient.getInstances(entry.serviceId).collectList().map(entry::withInstances))
+            .collectList()
+            .timeout(REFRESH_TIMEOUT)
+            .subscribe(this::updateRoutes, error -> log.warn("Could not refresh the route registry: {}", error.getMessage()));
+    }
+
+    /**
+     * Start a new error rate window.
+     */
+    @Scheduled(fixedRate = ERROR_RATE_WINDOW_MILLIS)
+    public void rollErrorRateWindow() {
+        statistics.values().forEach(RouteStatistics::rollWindow);
+    }
+
+    /**
+     * Get the entry of a route definition: the current one when the definition did not change, to avoid deriving its path
+     * and service again.
+     */
+    private RouteEntry getEntry(RouteDefinition definition) {
+        RouteEntry current = routes.get(definition.getId());
+        if (current != null && current.definition.equals(definition)) {
+            return current;
+        }
+        List<ServiceInstance> instances = current != null ? current.instances : Collections.emptyList();
+        return new RouteEntry(definition, getPath(definition), getServiceId(definition), instances);
+    }
+
+    private void updateRoutes(List<RouteEntry> entries) {
+        Set<String> routeIds = entries.stream().map(entry -> entry.definition.getId()).collect(Collectors.toSet());
+        routes.keySet().retainAll(routeIds);
+        statistics.keySet().stream().filter(routeId -> !routeIds.contains(routeId)).forEach(this::removeStatistics);
+        for (RouteEntry entry : entries) {
+            if (routes.get(entry.definition.getId()) != entry) {
+                routes.put(entry.definition.getId(), entry);
+            }
+        }
+    }
+
+    private RouteVM toRouteVM(RouteEntry entry) {
+        RouteVM routeVM = new RouteVM();
+        routeVM.setPath(entry.path);
+        routeVM.setServiceId(entry.serviceId);
+        routeVM.setServiceInstances(entry.instances);
+        RouteStatistics stats = statistics.get(entry.definition.getId());
+        if (stats != null) {
+            routeVM.setInFlightRequests(stats.inFlight.get());
+            routeVM.setRequestCount(stats.requests.sum());
+            routeVM.setErrorRate(stats.getErrorRate());
+            HistogramSnapshot snapshot = stats.timer.takeSnapshot();
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                if (percentile.percentile() == 0.5) {
+                    routeVM.setLatencyP50(percentile.value(TimeUnit.MILLISECONDS));
+                } else if (percentile.percentile() == 0.99) {
+                    routeVM.setLatencyP99(percentile.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return routeVM;
+    }
+
+    private RouteStatistics createStatistics(String routeId) {
+        Timer timer = Timer.builder(METRIC_NAME).tag("route", routeId).publishPercentiles(0.5, 0.99).register(meterRegistry);
+        return new RouteStatistics(timer);
+    }
+
+    private void removeStatistics(String routeId) {
+        RouteStatistics stats = statistics.remove(routeId);
+        if (stats != null) {
+            meterRegistry.remove(stats.timer);
+        }
+    }
+
+    /**
+     * The patterns of the path predicate of a route, to make Gateway routes look like Zuul's.
+     */
+    private static String getPath(RouteDefinition definition) {
+        return definition
+            .getPredicates()
+            .stream()
+            .filter(predicate -> PATH_PREDICATE.equals(predicate.getName()))
+            .flatMap(predicate -> predicate.getArgs().values().stream())
+            .collect(Collectors.joining(","));
+    }
+
+    private static String getServiceId(RouteDefinition definition) {
+        return definition.getId().substring(definition.getId().indexOf('_') + 1).toLowerCase();
+    }
+
+    private static final class RouteEntry {
+
+        private final RouteDefinition definition;
+        private final String path;
+        private final String serviceId;
+        private final List<ServiceInstance> instances;
+
+        private RouteEntry(RouteDefinition definition, String path, String serviceId, List<ServiceInstance> instances) {
+            this.definition = definition;
+            this.path = path;
+            this.serviceId = serviceId;
+            this.instances = instances;
+        }
+
+        private RouteEntry withInstances(List<ServiceInstance> instances) {
+            return instances.equals(this.instances) ? this : new RouteEntry(definition, path, serviceId, instances);
+        }
+    }
+
+    private static final class RouteStatistics {
+
+        private final Timer timer;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile long windowRequests;
+        private volatile long windowErrors;
+        private volatile double errorRate;
+
+        private RouteStatistics(Timer timer) {
+            this.timer = timer;
+        }
+
+        /**
+         * The error rate of the last complete window, or of the current one until a window is complete.
+         */
+        private double getErrorRate() {
+            if (windowRequests > 0 || errorRate > 0) {
+                return errorRate;
+            }
+            long total = requests.sum();
+            return total == 0 ? 0 : (double) errors.sum() / total;
+        }
+
+        private void rollWindow() {
+            long totalRequests = requests.sum();
+            long totalErrors = errors.sum();
+            long windowRequestCount = totalRequests - windowRequests;
+            errorRate = windowRequestCount == 0 ? 0 : (double) (totalErrors - windowErrors) / windowRequestCount;
+            windowRequests = totalRequests;
+            windowErrors = totalErrors;
+        }
+    }
+}
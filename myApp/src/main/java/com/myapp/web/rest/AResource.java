@@ -1,22 +1,34 @@
 package com.myapp.web.rest;
 
 import com.myapp.domain.A;
+import com.myapp.domain.B;
 import com.myapp.repository.ARepository;
+import com.myapp.repository.BRepository;
+import com.myapp.service.EntityManager;
 import com.myapp.web.rest.errors.BadRequestAlertException;
+import com.myapp.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -34,13 +46,26 @@ public class AResource {
 
     private static final String ENTITY_NAME = "a";
 
+    private static final String INCLUDE_BS = "bs";
+
+    /**
+     * Number of aS whose bS are loaded by a single query.
+     */
+    private static final int INCLUDE_BATCH_SIZE = 500;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ARepository aRepository;
 
-    public AResource(ARepository aRepository) {
+    private final BRepository bRepository;
+
+    private final EntityManager entityManager;
+
+    public AResource(ARepository aRepository, BRepository bRepository, EntityManager entityManager) {
         this.aRepository = aRepository;
+        this.bRepository = bRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -172,37 +197,160 @@ public class AResource {
     /**
      * {@code GET  /as} : get all the aS.
      *
+     * @param include the relationships to load with the aS - only {@code bs} is supported.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of aS in body.
      */
     @GetMapping("/as")
-    public Mono<List<A>> getAllAS() {
+    public Mono<List<A>> getAllAS(@RequestParam(required = false) List<String> include) {
         log.debug("REST request to get all AS");
-        return aRepository.findAll().collectList();
+        return fetchIncluded(aRepository.findAll(), include).collectList();
     }
 
     /**
      * {@code GET  /as} : get all the aS as a stream.
+     * @param include the relationships to load with the aS - only {@code bs} is supported.
      * @return the {@link Flux} of aS.
      */
     @GetMapping(value = "/as", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<A> getAllASAsStream() {
+    public Flux<A> getAllASAsStream(@RequestParam(required = false) List<String> include) {
         log.debug("REST request to get all AS as a stream");
-        return aRepository.findAll();
+        return fetchIncluded(aRepository.findAll(), include);
+    }
+
+    /**
+     * {@code GET  /as?size=:size} : get a page of the aS, using keyset pagination.
+     *
+     * @param size the size of the page, capped to {@value KeysetPaginationUtil#MAX_PAGE_SIZE}.
+     * @param cursor the cursor of the page, given in the {@code Link} header of the previous one - or none for the first page.
+     * @param sort the sort order of the first page - the following pages keep the order of their cursor.
+     * @param include the relationships to load with the aS - only {@code bs} is supported.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of aS in body,
+     * or with status {@code 400 (Bad Request)} if the size or the cursor is not valid.
+     */
+    @GetMapping(value = "/as", params = "size")
+    public Mono<ResponseEntity<List<A>>> getAllASByKeyset(
+        @RequestParam int size,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        Sort sort,
+        @RequestParam(required = false) List<String> include,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a page of AS after cursor {}", cursor);
+        int pageSize = KeysetPaginationUtil.checkPageSize(size, ENTITY_NAME);
+        EntityManager.Keyset keyset;
+        try {
+            keyset = entityManager.createKeyset(A.class, sort, pageSize, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return fetchIncluded(aRepository.findAllBy(keyset), include)
+            .collectList()
+            .map(
+                page ->
+                    ResponseEntity
+                        .ok()
+                        .headers(
+                            KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                                UriComponentsBuilder.fromHttpRequest(request),
+                                entityManager,
+                                keyset,
+                                page
+                            )
+                        )
+                        .body(page)
+            );
     }
 
     /**
      * {@code GET  /as/:id} : get the "id" a.
      *
      * @param id the id of the a to retrieve.
+     * @param include the relationships to load with the a - only {@code bs} is supported.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the a, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/as/{id}")
-    public Mono<ResponseEntity<A>> getA(@PathVariable Long id) {
+    public Mono<ResponseEntity<A>> getA(@PathVariable Long id, @RequestParam(required = false) List<String> include) {
         log.debug("REST request to get A : {}", id);
-        Mono<A> a = aRepository.findById(id);
+        Mono<A> a = fetchIncluded(aRepository.findById(id).flux(), include).next();
         return ResponseUtil.wrapOrNotFound(a);
     }
 
+    /**
+     * {@code POST  /as/bulk} : Create new aS.
+     *
+     * @param as the aS to create.
+     * @return the result of each a, with status {@code 201 (Created)} and its new id, or with status {@code 400 (Bad Request)} if
+     * the a has already an ID.
+     */
+    @PostMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> createAllAS(@RequestBody List<A> as) {
+        log.debug("REST request to save {} AS", as.size());
+        return BulkResourceUtil.createAll(entityManager, Flux.fromIterable(as), A::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code POST  /as/bulk} : Create new aS from a stream.
+     *
+     * @param as the aS to create.
+     * @return the {@link Flux} of the result of each a.
+     */
+    @PostMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> createAllASAsStream(@RequestBody Flux<A> as) {
+        log.debug("REST request to save a stream of AS");
+        return BulkResourceUtil.createAll(entityManager, as, A::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code PUT  /as/bulk} : Updates existing aS.
+     *
+     * @param as the aS to update.
+     * @return the result of each a, with status {@code 200 (OK)}, or with status {@code 400 (Bad Request)} if the a is not valid,
+     * or with status {@code 404 (Not Found)} if the a does not exist.
+     */
+    @PutMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> updateAllAS(@RequestBody List<A> as) {
+        log.debug("REST request to update {} AS", as.size());
+        return BulkResourceUtil.updateAll(entityManager, Flux.fromIterable(as), A::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code PUT  /as/bulk} : Updates existing aS from a stream.
+     *
+     * @param as the aS to update.
+     * @return the {@link Flux} of the result of each a.
+     */
+    @PutMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> updateAllASAsStream(@RequestBody Flux<A> as) {
+        log.debug("REST request to update a stream of AS");
+        return BulkResourceUtil.updateAll(entityManager, as, A::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code DELETE  /as/bulk} : delete the aS with the given ids.
+     *
+     * @param ids the ids of the aS to delete.
+     * @return the result of each id, with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)} if the a does
+     * not exist, or with status {@code 400 (Bad Request)} if the id is repeated.
+     */
+    @DeleteMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> deleteAllAS(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} AS", ids.size());
+        return BulkResourceUtil.deleteAll(entityManager, A.class, Flux.fromIterable(ids)).collectList();
+    }
+
+    /**
+     * {@code DELETE  /as/bulk} : delete the aS with the ids of a stream.
+     *
+     * @param ids the ids of the aS to delete.
+     * @return the {@link Flux} of the result of each id.
+     */
+    @DeleteMapping(value = "/as/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> deleteAllASAsStream(@RequestBody Flux<Long> ids) {
+        log.debug("REST request to delete a stream of AS");
+        return BulkResourceUtil.deleteAll(entityManager, A.class, ids);
+    }
+
     /**
      * {@code DELETE  /as/:id} : delete the "id" a.
      *
@@ -223,4 +371,31 @@ public class AResource {
                         .build()
             );
     }
+
+    /**
+     * Load the requested relationships of the aS, by batches of {@value #INCLUDE_BATCH_SIZE} aS, so that listing the aS
+     * with their bS costs one query per batch instead of one query per a.
+     */
+    private Flux<A> fetchIncluded(Flux<A> as, List<String> include) {
+        if (include == null || include.isEmpty()) {
+            return as;
+        }
+        if (!include.stream().allMatch(INCLUDE_BS::equals)) {
+            return Flux.error(new BadRequestAlertException("Invalid include", ENTITY_NAME, "includeinvalid"));
+        }
+        return as.buffer(INCLUDE_BATCH_SIZE).concatMap(this::fetchBs);
+    }
+
+    private Flux<A> fetchBs(List<A> as) {
+        List<Long> ids = as.stream().map(A::getId).distinct().collect(Collectors.toList());
+        return bRepository
+            .findByAIn(ids)
+            .collectMultimap(B::getAId)
+            .flatMapIterable(
+                (Map<Long, Collection<B>> bsByA) -> {
+                    as.forEach(a -> a.setBs(new HashSet<>(bsByA.getOrDefault(a.getId(), Collections.emptyList()))));
+                    return as;
+                }
+            );
+    }
 }
@@ -2,7 +2,6 @@ package com.myapp.web.rest;
 
 import com.myapp.repository.UserRepository;
 import com.myapp.security.SecurityUtils;
-import com.myapp.service.MailService;
 import com.myapp.service.UserService;
 import com.myapp.service.dto.AdminUserDTO;
 import com.myapp.service.dto.PasswordChangeDTO;
@@ -11,7 +10,6 @@ import com.myapp.web.rest.errors.*;
 import com.myapp.web.rest.vm.KeyAndPasswordVM;
 import com.myapp.web.rest.vm.ManagedUserVM;
 import java.security.Principal;
-import java.util.Objects;
 import javax.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -41,12 +39,9 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -63,7 +58,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        return userService.registerUser(managedUserVM, managedUserVM.getPassword()).doOnSuccess(mailService::sendActivationEmail).then();
+        return userService.registerUser(managedUserVM, managedUserVM.getPassword()).then();
     }
 
     /**
@@ -169,16 +164,14 @@ public class AccountResource {
     public Mono<Void> requestPasswordReset(@RequestBody String mail) {
         return userService
             .requestPasswordReset(mail)
-            .doOnSuccess(
-                user -> {
-                    if (Objects.nonNull(user)) {
-                        mailService.sendPasswordResetMail(user);
-                    } else {
+            .switchIfEmpty(
+                Mono.fromRunnable(
+                    () -> {
                         // Pretend the request has been successful to prevent checking which emails really exist
                         // but log that an invalid attempt has been made
                         log.warn("Password reset requested for non existing mail");
                     }
-                }
+                )
             )
             .then();
     }
@@ -1,22 +1,29 @@
 package com.myapp.web.rest;
 
+import com.myapp.domain.A;
 import com.myapp.domain.B;
 import com.myapp.repository.BRepository;
+import com.myapp.service.EntityManager;
 import com.myapp.web.rest.errors.BadRequestAlertException;
+import com.myapp.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -39,8 +46,11 @@ public class BResource {
 
     private final BRepository bRepository;
 
-    public BResource(BRepository bRepository) {
+    private final EntityManager entityManager;
+
+    public BResource(BRepository bRepository, EntityManager entityManager) {
         this.bRepository = bRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -190,6 +200,50 @@ public class BResource {
         return bRepository.findAll();
     }
 
+    /**
+     * {@code GET  /bs?size=:size} : get a page of the bS, using keyset pagination.
+     *
+     * @param size the size of the page, capped to {@value KeysetPaginationUtil#MAX_PAGE_SIZE}.
+     * @param cursor the cursor of the page, given in the {@code Link} header of the previous one - or none for the first page.
+     * @param sort the sort order of the first page - the following pages keep the order of their cursor.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of bS in body,
+     * or with status {@code 400 (Bad Request)} if the size or the cursor is not valid.
+     */
+    @GetMapping(value = "/bs", params = "size")
+    public Mono<ResponseEntity<List<B>>> getAllBSByKeyset(
+        @RequestParam int size,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        Sort sort,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a page of BS after cursor {}", cursor);
+        int pageSize = KeysetPaginationUtil.checkPageSize(size, ENTITY_NAME);
+        EntityManager.Keyset keyset;
+        try {
+            keyset = entityManager.createKeyset(B.class, sort, pageSize, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return bRepository
+            .findAllBy(keyset)
+            .collectList()
+            .map(
+                page ->
+                    ResponseEntity
+                        .ok()
+                        .headers(
+                            KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                                UriComponentsBuilder.fromHttpRequest(request),
+                                entityManager,
+                                keyset,
+                                page
+                            )
+                        )
+                        .body(page)
+            );
+    }
+
     /**
      * {@code GET  /bs/:id} : get the "id" b.
      *
@@ -203,6 +257,81 @@ public class BResource {
         return ResponseUtil.wrapOrNotFound(b);
     }
 
+    /**
+     * {@code POST  /bs/bulk} : Create new bS.
+     *
+     * @param bs the bS to create.
+     * @return the result of each b, with status {@code 201 (Created)} and its new id, or with status {@code 400 (Bad Request)} if
+     * the b has already an ID.
+     */
+    @PostMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> createAllBS(@RequestBody List<B> bs) {
+        log.debug("REST request to save {} BS", bs.size());
+        return BulkResourceUtil.createAll(entityManager, Flux.fromIterable(bs), B::getId, this::validateA).collectList();
+    }
+
+    /**
+     * {@code POST  /bs/bulk} : Create new bS from a stream.
+     *
+     * @param bs the bS to create.
+     * @return the {@link Flux} of the result of each b.
+     */
+    @PostMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> createAllBSAsStream(@RequestBody Flux<B> bs) {
+        log.debug("REST request to save a stream of BS");
+        return BulkResourceUtil.createAll(entityManager, bs, B::getId, this::validateA);
+    }
+
+    /**
+     * {@code PUT  /bs/bulk} : Updates existing bS.
+     *
+     * @param bs the bS to update.
+     * @return the result of each b, with status {@code 200 (OK)}, or with status {@code 400 (Bad Request)} if the b is not valid,
+     * or with status {@code 404 (Not Found)} if the b does not exist.
+     */
+    @PutMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> updateAllBS(@RequestBody List<B> bs) {
+        log.debug("REST request to update {} BS", bs.size());
+        return BulkResourceUtil.updateAll(entityManager, Flux.fromIterable(bs), B::getId, this::validateA).collectList();
+    }
+
+    /**
+     * {@code PUT  /bs/bulk} : Updates existing bS from a stream.
+     *
+     * @param bs the bS to update.
+     * @return the {@link Flux} of the result of each b.
+     */
+    @PutMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> updateAllBSAsStream(@RequestBody Flux<B> bs) {
+        log.debug("REST request to update a stream of BS");
+        return BulkResourceUtil.updateAll(entityManager, bs, B::getId, this::validateA);
+    }
+
+    /**
+     * {@code DELETE  /bs/bulk} : delete the bS with the given ids.
+     *
+     * @param ids the ids of the bS to delete.
+     * @return the result of each id, with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)} if the b does
+     * not exist, or with status {@code 400 (Bad Request)} if the id is repeated.
+     */
+    @DeleteMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> deleteAllBS(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} BS", ids.size());
+        return BulkResourceUtil.deleteAll(entityManager, B.class, Flux.fromIterable(ids)).collectList();
+    }
+
+    /**
+     * {@code DELETE  /bs/bulk} : delete the bS with the ids of a stream.
+     *
+     * @param ids the ids of the bS to delete.
+     * @return the {@link Flux} of the result of each id.
+     */
+    @DeleteMapping(value = "/bs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> deleteAllBSAsStream(@RequestBody Flux<Long> ids) {
+        log.debug("REST request to delete a stream of BS");
+        return BulkResourceUtil.deleteAll(entityManager, B.class, ids);
+    }
+
     /**
      * {@code DELETE  /bs/:id} : delete the "id" b.
      *
@@ -223,4 +352,19 @@ public class BResource {
                         .build()
             );
     }
+
+    /**
+     * Check that the a of each b exists, as a missing one would fail the whole bulk request.
+     */
+    private Mono<List<String>> validateA(List<B> bs) {
+        return entityManager
+            .findExistingIds(A.class, bs.stream().map(B::getAId).collect(Collectors.toList()))
+            .map(
+                existing ->
+                    bs
+                        .stream()
+                        .map(b -> b.getAId() == null || existing.contains(b.getAId()) ? null : "anotfound")
+                        .collect(Collectors.toList())
+            );
+    }
 }
@@ -0,0 +1,218 @@
+package com.myapp.web.rest;
+
+import com.myapp.service.EntityManager;
+import com.myapp.web.rest.vm.BulkItemResultVM;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Utility class for handling bulk requests.
+ * <p>
+ * Items are processed by batches of {@value #BATCH_SIZE}: each batch is validated with a few queries, then written with a
+ * single batched statement. Invalid items are reported in the results and skipped, while a database error fails the whole
+ * request, so that it can be rolled back by the surrounding transaction.
+ */
+final class BulkResourceUtil {
+
+    static final int BATCH_SIZE = 500;
+
+    private BulkResourceUtil() {}
+
+    /**
+     * A validator accepting every item.
+     *
+     * @param <T> the type of the items.
+     * @return the validator.
+     */
+    static <T> Function<List<T>, Mono<List<String>>> noValidation() {
+        return items -> Mono.just(Collections.nCopies(items.size(), null));
+    }
+
+    /**
+     * Create the given entities.
+     *
+     * @param entityManager the entity manager which writes the entities.
+     * @param items the entities to create, without ids.
+     * @param idGetter gets the id of an entity.
+     * @param validator gets the error key of each entity of a batch, or {@code null} for the valid ones.
+     * @param <T> the type of the entities.
+     * @return the result of each entity, in order.
+     */
+    static <T> Flux<BulkItemResultVM> createAll(
+        EntityManager entityManager,
+        Flux<T> items,
+        Function<T, Long> idGetter,
+        Function<List<T>, Mono<List<String>>> validator
+    ) {
+        return items
+            .index()
+            .buffer(BATCH_SIZE)
+            .concatMap(
+                batch ->
+                    validate(batch, validator, idGetter, item -> idGetter.apply(item) != null ? "idexists" : null)
+                        .flatMapMany(
+                            results -> {
+                                List<Integer> valid = validIndexes(results);
+                                List<T> entities = valid.stream().map(i -> batch.get(i).getT2()).collect(Collectors.toList());
+                                return entityManager
+                                    .insertAll(entities)
+                                    .index()
+                                    .doOnNext(
+                                        saved -> {
+                                            int i = valid.get(saved.getT1().intValue());
+                                            results[i] = succeeded(batch.get(i).getT1(), idGetter.apply(saved.getT2()), HttpStatus.CREATED);
+                                        }
+                                    )
+                                    .thenMany(Flux.fromArray(results));
+                            }
+                        )
+            );
+    }
+
+    /**
+     * Update the given entities.
+     *
+     * @param entityManager the entity manager which writes the entities.
+     * @param items the entities to update, with ids.
+     * @param idGetter gets the id of an entity.
+     * @param validator gets the error key of each entity of a batch, or {@code null} for the valid ones.
+     * @param <T> the type of the entities.
+     * @return the result of each entity, in order.
+     */
+    static <T> Flux<BulkItemResultVM> updateAll(
+        EntityManager entityManager,
+        Flux<T> items,
+        Function<T, Long> idGetter,
+        Function<List<T>, Mono<List<String>>> validator
+    ) {
+        return items
+            .index()
+            .buffer(BATCH_SIZE)
+            .concatMap(
+                batch ->
+                    validate(batch, validator, idGetter, item -> idGetter.apply(item) == null ? "idnull" : null)
+                        .flatMapMany(
+                            results -> {
+                                List<Integer> valid = validIndexes(results);
+                                List<T> entities = valid.stream().map(i -> batch.get(i).getT2()).collect(Collectors.toList());
+                                return entityManager
+                                    .updateAll(entities)
+                                    .index()
+                                    .doOnNext(
+                                        updated -> {
+                                            int i = valid.get(updated.getT1().intValue());
+                                            Long id = idGetter.apply(batch.get(i).getT2());
+                                            results[i] =
+                                                updated.getT2() > 0
+                                                    ? succeeded(batch.get(i).getT1(), id, HttpStatus.OK)
+                                                    : failed(batch.get(i).getT1(), id, HttpStatus.NOT_FOUND, "idnotfound");
+                                        }
+                                    )
+                                    .thenMany(Flux.fromArray(results));
+                            }
+                        )
+            );
+    }
+
+    /**
+     * Delete the entities with the given ids. An id given more than once is only deleted once, its repetitions are
+     * reported as invalid.
+     *
+     * @param entityManager the entity manager which deletes the entities.
+     * @param entityType the type of the entities.
+     * @param ids the ids of the entities to delete.
+     * @return the result of each id, in order.
+     */
+    static Flux<BulkItemResultVM> deleteAll(EntityManager entityManager, Class<?> entityType, Flux<Long> ids) {
+        return Flux.defer(
+            () -> {
+                Set<Long> requestedIds = new HashSet<>();
+                return ids
+                    .index()
+                    .buffer(BATCH_SIZE)
+                    .concatMap(
+                        batch -> {
+                            BulkItemResultVM[] results = new BulkItemResultVM[batch.size()];
+                            for (int i = 0; i < batch.size(); i++) {
+                                if (!requestedIds.add(batch.get(i).getT2())) {
+                                    results[i] = failed(batch.get(i).getT1(), batch.get(i).getT2(), HttpStatus.BAD_REQUEST, "idduplicate");
+                                }
+                            }
+                            List<Integer> valid = validIndexes(results);
+                            List<Long> validIds = valid.stream().map(i -> batch.get(i).getT2()).collect(Collectors.toList());
+                            return entityManager
+                                .deleteAllById(entityType, validIds)
+                                .flatMapMany(
+                                    (Set<Object> deleted) -> {
+                                        for (int i : valid) {
+                                            Tuple2<Long, Long> item = batch.get(i);
+                                            results[i] =
+                                                deleted.contains(item.getT2())
+                                                    ? succeeded(item.getT1(), item.getT2(), HttpStatus.NO_CONTENT)
+                                                    : failed(item.getT1(), item.getT2(), HttpStatus.NOT_FOUND, "idnotfound");
+                                        }
+                                        return Flux.fromArray(results);
+                                    }
+                                );
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Validate a batch, and return its results with the failed items only.
+     */
+    private static <T> Mono<BulkItemResultVM[]> validate(
+        List<Tuple2<Long, T>> batch,
+        Function<List<T>, Mono<List<String>>> validator,
+        Function<T, Long> idGetter,
+        Function<T, String> idValidator
+    ) {
+        List<T> entities = batch.stream().map(Tuple2::getT2).collect(Collectors.toList());
+        return validator
+            .apply(entities)
+            .map(
+                errorKeys -> {
+                    BulkItemResultVM[] results = new BulkItemResultVM[batch.size()];
+                    for (int i = 0; i < batch.size(); i++) {
+                        String errorKey = idValidator.apply(entities.get(i));
+                        if (errorKey == null) {
+                            errorKey = errorKeys.get(i);
+                        }
+                        if (errorKey != null) {
+                            results[i] = failed(batch.get(i).getT1(), idGetter.apply(entities.get(i)), HttpStatus.BAD_REQUEST, errorKey);
+                        }
+                    }
+                    return results;
+                }
+            );
+    }
+
+    private static List<Integer> validIndexes(BulkItemResultVM[] results) {
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                valid.add(i);
+            }
+        }
+        return valid;
+    }
+
+    private static BulkItemResultVM succeeded(long index, Long id, HttpStatus status) {
+        return new BulkItemResultVM(index, id, status.value(), null);
+    }
+
+    private static BulkItemResultVM failed(long index, Long id, HttpStatus status, String errorKey) {
+        return new BulkItemResultVM(index, id, status.value(), errorKey);
+    }
+}
@@ -2,7 +2,9 @@ package com.myapp.web.rest;
 
 import com.myapp.domain.C;
 import com.myapp.repository.CRepository;
+import com.myapp.service.EntityManager;
 import com.myapp.web.rest.errors.BadRequestAlertException;
+import com.myapp.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,12 +13,15 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -39,8 +44,11 @@ public class CResource {
 
     private final CRepository cRepository;
 
-    public CResource(CRepository cRepository) {
+    private final EntityManager entityManager;
+
+    public CResource(CRepository cRepository, EntityManager entityManager) {
         this.cRepository = cRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -190,6 +198,50 @@ public class CResource {
         return cRepository.findAll();
     }
 
+    /**
+     * {@code GET  /cs?size=:size} : get a page of the cS, using keyset pagination.
+     *
+     * @param size the size of the page, capped to {@value KeysetPaginationUtil#MAX_PAGE_SIZE}.
+     * @param cursor the cursor of the page, given in the {@code Link} header of the previous one - or none for the first page.
+     * @param sort the sort order of the first page - the following pages keep the order of their cursor.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of cS in body,
+     * or with status {@code 400 (Bad Request)} if the size or the cursor is not valid.
+     */
+    @GetMapping(value = "/cs", params = "size")
+    public Mono<ResponseEntity<List<C>>> getAllCSByKeyset(
+        @RequestParam int size,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        Sort sort,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a page of CS after cursor {}", cursor);
+        int pageSize = KeysetPaginationUtil.checkPageSize(size, ENTITY_NAME);
+        EntityManager.Keyset keyset;
+        try {
+            keyset = entityManager.createKeyset(C.class, sort, pageSize, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return cRepository
+            .findAllBy(keyset)
+            .collectList()
+            .map(
+                page ->
+                    ResponseEntity
+                        .ok()
+                        .headers(
+                            KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                                UriComponentsBuilder.fromHttpRequest(request),
+                                entityManager,
+                                keyset,
+                                page
+                            )
+                        )
+                        .body(page)
+            );
+    }
+
     /**
      * {@code GET  /cs/:id} : get the "id" c.
      *
@@ -203,6 +255,81 @@ public class CResource {
         return ResponseUtil.wrapOrNotFound(c);
     }
 
+    /**
+     * {@code POST  /cs/bulk} : Create new cS.
+     *
+     * @param cs the cS to create.
+     * @return the result of each c, with status {@code 201 (Created)} and its new id, or with status {@code 400 (Bad Request)} if
+     * the c has already an ID.
+     */
+    @PostMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> createAllCS(@RequestBody List<C> cs) {
+        log.debug("REST request to save {} CS", cs.size());
+        return BulkResourceUtil.createAll(entityManager, Flux.fromIterable(cs), C::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code POST  /cs/bulk} : Create new cS from a stream.
+     *
+     * @param cs the cS to create.
+     * @return the {@link Flux} of the result of each c.
+     */
+    @PostMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> createAllCSAsStream(@RequestBody Flux<C> cs) {
+        log.debug("REST request to save a stream of CS");
+        return BulkResourceUtil.createAll(entityManager, cs, C::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code PUT  /cs/bulk} : Updates existing cS.
+     *
+     * @param cs the cS to update.
+     * @return the result of each c, with status {@code 200 (OK)}, or with status {@code 400 (Bad Request)} if the c is not valid,
+     * or with status {@code 404 (Not Found)} if the c does not exist.
+     */
+    @PutMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> updateAllCS(@RequestBody List<C> cs) {
+        log.debug("REST request to update {} CS", cs.size());
+        return BulkResourceUtil.updateAll(entityManager, Flux.fromIterable(cs), C::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code PUT  /cs/bulk} : Updates existing cS from a stream.
+     *
+     * @param cs the cS to update.
+     * @return the {@link Flux} of the result of each c.
+     */
+    @PutMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> updateAllCSAsStream(@RequestBody Flux<C> cs) {
+        log.debug("REST request to update a stream of CS");
+        return BulkResourceUtil.updateAll(entityManager, cs, C::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code DELETE  /cs/bulk} : delete the cS with the given ids.
+     *
+     * @param ids the ids of the cS to delete.
+     * @return the result of each id, with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)} if the c does
+     * not exist, or with status {@code 400 (Bad Request)} if the id is repeated.
+     */
+    @DeleteMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> deleteAllCS(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} CS", ids.size());
+        return BulkResourceUtil.deleteAll(entityManager, C.class, Flux.fromIterable(ids)).collectList();
+    }
+
+    /**
+     * {@code DELETE  /cs/bulk} : delete the cS with the ids of a stream.
+     *
+     * @param ids the ids of the cS to delete.
+     * @return the {@link Flux} of the result of each id.
+     */
+    @DeleteMapping(value = "/cs/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> deleteAllCSAsStream(@RequestBody Flux<Long> ids) {
+        log.debug("REST request to delete a stream of CS");
+        return BulkResourceUtil.deleteAll(entityManager, C.class, ids);
+    }
+
     /**
      * {@code DELETE  /cs/:id} : delete the "id" c.
      *
@@ -2,7 +2,9 @@ package com.myapp.web.rest;
 
 import com.myapp.domain.D;
 import com.myapp.repository.DRepository;
+import com.myapp.service.EntityManager;
 import com.myapp.web.rest.errors.BadRequestAlertException;
+import com.myapp.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,12 +13,15 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
@@ -39,8 +44,11 @@ public class DResource {
 
     private final DRepository dRepository;
 
-    public DResource(DRepository dRepository) {
+    private final EntityManager entityManager;
+
+    public DResource(DRepository dRepository, EntityManager entityManager) {
         this.dRepository = dRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -190,6 +198,50 @@ public class DResource {
         return dRepository.findAll();
     }
 
+    /**
+     * {@code GET  /ds?size=:size} : get a page of the dS, using keyset pagination.
+     *
+     * @param size the size of the page, capped to {@value KeysetPaginationUtil#MAX_PAGE_SIZE}.
+     * @param cursor the cursor of the page, given in the {@code Link} header of the previous one - or none for the first page.
+     * @param sort the sort order of the first page - the following pages keep the order of their cursor.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of dS in body,
+     * or with status {@code 400 (Bad Request)} if the size or the cursor is not valid.
+     */
+    @GetMapping(value = "/ds", params = "size")
+    public Mono<ResponseEntity<List<D>>> getAllDSByKeyset(
+        @RequestParam int size,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAMETER, required = false) String cursor,
+        Sort sort,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a page of DS after cursor {}", cursor);
+        int pageSize = KeysetPaginationUtil.checkPageSize(size, ENTITY_NAME);
+        EntityManager.Keyset keyset;
+        try {
+            keyset = entityManager.createKeyset(D.class, sort, pageSize, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return dRepository
+            .findAllBy(keyset)
+            .collectList()
+            .map(
+                page ->
+                    ResponseEntity
+                        .ok()
+                        .headers(
+                            KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                                UriComponentsBuilder.fromHttpRequest(request),
+                                entityManager,
+                                keyset,
+                                page
+                            )
+                        )
+                        .body(page)
+            );
+    }
+
     /**
      * {@code GET  /ds/:id} : get the "id" d.
      *
@@ -203,6 +255,81 @@ public class DResource {
         return ResponseUtil.wrapOrNotFound(d);
     }
 
+    /**
+     * {@code POST  /ds/bulk} : Create new dS.
+     *
+     * @param ds the dS to create.
+     * @return the result of each d, with status {@code 201 (Created)} and its new id, or with status {@code 400 (Bad Request)} if
+     * the d has already an ID.
+     */
+    @PostMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> createAllDS(@RequestBody List<D> ds) {
+        log.debug("REST request to save {} DS", ds.size());
+        return BulkResourceUtil.createAll(entityManager, Flux.fromIterable(ds), D::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code POST  /ds/bulk} : Create new dS from a stream.
+     *
+     * @param ds the dS to create.
+     * @return the {@link Flux} of the result of each d.
+     */
+    @PostMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> createAllDSAsStream(@RequestBody Flux<D> ds) {
+        log.debug("REST request to save a stream of DS");
+        return BulkResourceUtil.createAll(entityManager, ds, D::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code PUT  /ds/bulk} : Updates existing dS.
+     *
+     * @param ds the dS to update.
+     * @return the result of each d, with status {@code 200 (OK)}, or with status {@code 400 (Bad Request)} if the d is not valid,
+     * or with status {@code 404 (Not Found)} if the d does not exist.
+     */
+    @PutMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> updateAllDS(@RequestBody List<D> ds) {
+        log.debug("REST request to update {} DS", ds.size());
+        return BulkResourceUtil.updateAll(entityManager, Flux.fromIterable(ds), D::getId, BulkResourceUtil.noValidation()).collectList();
+    }
+
+    /**
+     * {@code PUT  /ds/bulk} : Updates existing dS from a stream.
+     *
+     * @param ds the dS to update.
+     * @return the {@link Flux} of the result of each d.
+     */
+    @PutMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> updateAllDSAsStream(@RequestBody Flux<D> ds) {
+        log.debug("REST request to update a stream of DS");
+        return BulkResourceUtil.updateAll(entityManager, ds, D::getId, BulkResourceUtil.noValidation());
+    }
+
+    /**
+     * {@code DELETE  /ds/bulk} : delete the dS with the given ids.
+     *
+     * @param ids the ids of the dS to delete.
+     * @return the result of each id, with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)} if the d does
+     * not exist, or with status {@code 400 (Bad Request)} if the id is repeated.
+     */
+    @DeleteMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<BulkItemResultVM>> deleteAllDS(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} DS", ids.size());
+        return BulkResourceUtil.deleteAll(entityManager, D.class, Flux.fromIterable(ids)).collectList();
+    }
+
+    /**
+     * {@code DELETE  /ds/bulk} : delete the dS with the ids of a stream.
+     *
+     * @param ids the ids of the dS to delete.
+     * @return the {@link Flux} of the result of each id.
+     */
+    @DeleteMapping(value = "/ds/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResultVM> deleteAllDSAsStream(@RequestBody Flux<Long> ids) {
+        log.debug("REST request to delete a stream of DS");
+        return BulkResourceUtil.deleteAll(entityManager, D.class, ids);
+    }
+
     /**
      * {@code DELETE  /ds/:id} : delete the "id" d.
      *
@@ -0,0 +1,36 @@
+package com.myapp.web.rest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.myapp.config.apidocs.GatewaySwaggerResourcesProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterConstants;
+import tech.jhipster.web.util.reactive.ResponseUtil;
+
+/**
+ * REST controller serving the merged API documentation of the microservices.
+ */
+@RestController
+@RequestMapping("/api/gateway")
+@Profile(JHipsterConstants.SPRING_PROFILE_API_DOCS)
+public class GatewayApiDocsResource {
+
+    private final GatewaySwaggerResourcesProvider gatewaySwaggerResourcesProvider;
+
+    public GatewayApiDocsResource(GatewaySwaggerResourcesProvider gatewaySwaggerResourcesProvider) {
+        this.gatewaySwaggerResourcesProvider = gatewaySwaggerResourcesProvider;
+    }
+
+    /**
+     * {@code GET  /api-docs} : get the OpenAPI documents of all the microservices, merged into a single one.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the merged document,
+     * or with status {@code 404 (Not Found)} if the merged document is disabled.
+     */
+    @GetMapping("/api-docs")
+    public Mono<ResponseEntity<ObjectNode>> getMergedApiDocs() {
+        return ResponseUtil.wrapOrNotFound(gatewaySwaggerResourcesProvider.getMergedApiDocs());
+    }
+}
@@ -0,0 +1,64 @@
+package com.myapp.web.rest;
+
+import com.myapp.service.EntityManager;
+import com.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * The next page is advertised in a {@code Link} header carrying the opaque cursor of the page, following
+ * <a href="https://tools.ietf.org/html/rfc5988">RFC 5988 (Link header)</a> like the offset pagination does.
+ */
+final class KeysetPaginationUtil {
+
+    static final String CURSOR_PARAMETER = "cursor";
+
+    /**
+     * The largest page size, like the one of the offset pagination.
+     */
+    static final int MAX_PAGE_SIZE = 2000;
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Check the requested page size.
+     *
+     * @param size the requested page size.
+     * @param entityName the name of the paginated entity.
+     * @return the page size, capped to {@value #MAX_PAGE_SIZE}.
+     * @throws BadRequestAlertException if the page size is not positive.
+     */
+    static int checkPageSize(int size, String entityName) {
+        if (size < 1) {
+            throw new BadRequestAlertException("Invalid page size", entityName, "pagesizeinvalid");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Generate the pagination headers of a keyset page.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param entityManager the entity manager which creates the cursor.
+     * @param keyset the position of the current page.
+     * @param page the content of the current page.
+     * @return the {@link HttpHeaders}, with a {@code Link rel="next"} header when the page is full.
+     */
+    static HttpHeaders generateKeysetPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        EntityManager entityManager,
+        EntityManager.Keyset keyset,
+        List<?> page
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() >= keyset.getSize()) {
+            String cursor = entityManager.createNextCursor(keyset, page.get(page.size() - 1));
+            String next = uriBuilder.replaceQueryParam(CURSOR_PARAMETER, cursor).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -6,11 +6,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -29,6 +31,8 @@ public class PublicUserResource {
         Arrays.asList("id", "login", "firstName", "lastName", "email", "activated", "langKey")
     );
 
+    private static final long AUTHORITIES_MAX_AGE_IN_SECONDS = 300;
+
     private final Logger log = LoggerFactory.getLogger(PublicUserResource.class);
 
     private final UserService userService;
@@ -64,10 +68,18 @@ public class PublicUserResource {
 
     /**
      * Gets a list of all roles.
+     * <p>
+     * Roles rarely change, so the list can be cached for {@value #AUTHORITIES_MAX_AGE_IN_SECONDS} seconds. The response is
+     * private since the request is authenticated, the gateway shares it between users through its
+     * {@code application.gateway.response-cache.shared-paths}.
      * @return a string list of all roles.
      */
     @GetMapping("/authorities")
-    public Mono<List<String>> getAuthorities() {
-        return userService.getAuthorities().collectList();
+    public Mono<ResponseEntity<List<String>>> getAuthorities() {
+        CacheControl cacheControl = CacheControl.maxAge(AUTHORITIES_MAX_AGE_IN_SECONDS, TimeUnit.SECONDS).cachePrivate();
+        return userService
+            .getAuthorities()
+            .collectList()
+            .map(authorities -> ResponseEntity.ok().cacheControl(cacheControl).body(authorities));
     }
 }
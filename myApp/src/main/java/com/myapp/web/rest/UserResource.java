@@ -4,7 +4,6 @@ import com.myapp.config.Constants;
 import com.myapp.domain.User;
 import com.myapp.repository.UserRepository;
 import com.myapp.security.AuthoritiesConstants;
-import com.myapp.service.MailService;
 import com.myapp.service.UserService;
 import com.myapp.service.dto.AdminUserDTO;
 import com.myapp.web.rest.errors.BadRequestAlertException;
@@ -89,12 +88,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -137,7 +133,6 @@ public class UserResource {
                     return userService.createUser(userDTO);
                 }
             )
-            .doOnSuccess(mailService::sendCreationEmail)
             .map(
                 user -> {
                     try {
@@ -0,0 +1,78 @@
+package com.myapp.web.rest.vm;
+
+/**
+ * View Model that stores the result of one item of a bulk request.
+ */
+public class BulkItemResultVM {
+
+    private long index;
+
+    private Long id;
+
+    private int status;
+
+    private String errorKey;
+
+    public BulkItemResultVM() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkItemResultVM(long index, Long id, int status, String errorKey) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.errorKey = errorKey;
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the HTTP status the item would have had in a single-item request.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the error key of a failed item, like the one of a {@code BadRequestAlertException}.
+     */
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultVM{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", errorKey='" + errorKey + "'" +
+            "}";
+    }
+}
@@ -14,6 +14,16 @@ public class RouteVM {
 
     private List<ServiceInstance> serviceInstances;
 
+    private int inFlightRequests;
+
+    private long requestCount;
+
+    private double latencyP50;
+
+    private double latencyP99;
+
+    private double errorRate;
+
     public String getPath() {
         return path;
     }
@@ -37,4 +47,53 @@ public class RouteVM {
     public void setServiceInstances(List<ServiceInstance> serviceInstances) {
         this.serviceInstances = serviceInstances;
     }
+
+    public int getInFlightRequests() {
+        return inFlightRequests;
+    }
+
+    public void setInFlightRequests(int inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(long requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    /**
+     * @return the median latency of the route, in milliseconds.
+     */
+    public double getLatencyP50() {
+        return latencyP50;
+    }
+
+    public void setLatencyP50(double latencyP50) {
+        this.latencyP50 = latencyP50;
+    }
+
+    /**
+     * @return the 99th percentile latency of the route, in milliseconds.
+     */
+    public double getLatencyP99() {
+        return latencyP99;
+    }
+
+    public void setLatencyP99(double latencyP99) {
+        this.latencyP99 = latencyP99;
+    }
+
+    /**
+     * @return the ratio of the requests of the route which failed with a server error, between 0 and 1.
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
 }
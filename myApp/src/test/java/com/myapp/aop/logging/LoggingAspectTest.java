@@ -0,0 +1,136 @@
+package com.myapp.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class LoggingAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoggingAspect loggingAspect;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setup() throws Exception {
+        loggingAspect = new LoggingAspect(new MockEnvironment(), new ApplicationProperties(), meterRegistry);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod("find"));
+        when(signature.getDeclaringTypeName()).thenReturn(SampleService.class.getName());
+        when(signature.getDeclaringType()).thenReturn(SampleService.class);
+        when(signature.getName()).thenReturn("find");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+    }
+
+    @Test
+    void shouldTimeMonoFromSubscriptionToCompletion() throws Throwable {
+        Sinks.One<String> sink = Sinks.one();
+        when(joinPoint.proceed()).thenReturn(sink.asMono());
+
+        Mono<?> result = (Mono<?>) loggingAspect.logAround(joinPoint);
+        // the time spent before the subscription is not part of the latency
+        Thread.sleep(500);
+        long subscribedAt = System.nanoTime();
+        result.subscribe();
+        Thread.sleep(100);
+        // the value is emitted on this thread, so the timer has recorded once it returns
+        sink.tryEmitValue("value");
+        long elapsed = System.nanoTime() - subscribedAt;
+
+        Timer timer = timer("success", "none");
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.NANOSECONDS))
+            .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100))
+            .isLessThanOrEqualTo(elapsed);
+    }
+
+    @Test
+    void shouldTimeFluxFromSubscriptionToCompletion() throws Throwable {
+        Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+        when(joinPoint.proceed()).thenReturn(sink.asFlux());
+
+        Flux<?> result = (Flux<?>) loggingAspect.logAround(joinPoint);
+        Thread.sleep(500);
+        long subscribedAt = System.nanoTime();
+        result.subscribe();
+        sink.tryEmitNext("first");
+        Thread.sleep(100);
+        sink.tryEmitNext("second");
+        assertThat(timer("success", "none").count()).isZero();
+        sink.tryEmitComplete();
+        long elapsed = System.nanoTime() - subscribedAt;
+
+        Timer timer = timer("success", "none");
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.NANOSECONDS))
+            .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100))
+            .isLessThanOrEqualTo(elapsed);
+    }
+
+    @Test
+    void shouldRecordCancellation() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Flux.never());
+
+        Disposable subscription = ((Flux<?>) loggingAspect.logAround(joinPoint)).subscribe();
+        subscription.dispose();
+
+        assertThat(timer("cancel", "none").count()).isEqualTo(1);
+        assertThat(timer("success", "none").count()).isZero();
+    }
+
+    @Test
+    void shouldRecordErrorWithExceptionType() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.error(new IllegalStateException("failure")));
+
+        Mono<?> result = (Mono<?>) loggingAspect.logAround(joinPoint);
+
+        assertThatThrownBy(result::block).isInstanceOf(IllegalStateException.class);
+        assertThat(timer("error", "IllegalStateException").count()).isEqualTo(1);
+        assertThat(timer("success", "none").count()).isZero();
+    }
+
+    @Test
+    void shouldNotRecordBeforeSubscription() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.just("value"));
+
+        loggingAspect.logAround(joinPoint);
+
+        assertThat(timer("success", "none").count()).isZero();
+    }
+
+    private Timer timer(String outcome, String exception) {
+        return meterRegistry
+            .get("method.timed")
+            .tag("class", "SampleService")
+            .tag("method", "find")
+            .tag("outcome", outcome)
+            .tag("exception", exception)
+            .timer();
+    }
+
+    static class SampleService {
+
+        public Mono<String> find() {
+            return Mono.empty();
+        }
+    }
+}
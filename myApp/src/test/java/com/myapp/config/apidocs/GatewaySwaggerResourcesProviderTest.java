@@ -2,18 +2,23 @@ package com.myapp.config.apidocs;
 
 import static com.myapp.config.apidocs.GatewaySwaggerResourcesProvider.swaggerResource;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.myapp.config.ApplicationProperties;
+
 import java.net.URI;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import springfox.documentation.swagger.web.SwaggerResource;
 import springfox.documentation.swagger.web.SwaggerResourcesProvider;
@@ -21,7 +26,6 @@ import springfox.documentation.swagger.web.SwaggerResourcesProvider;
 @ExtendWith(SpringExtension.class)
 class GatewaySwaggerResourcesProviderTest {
 
-    @InjectMocks
     GatewaySwaggerResourcesProvider gatewaySwaggerResourcesProvider;
 
     @Mock
@@ -30,6 +34,18 @@ class GatewaySwaggerResourcesProviderTest {
     @Mock
     SwaggerResourcesProvider swaggerResourcesProvider;
 
+    @BeforeEach
+    void setup() {
+        gatewaySwaggerResourcesProvider =
+            new GatewaySwaggerResourcesProvider(
+                routeLocator,
+                swaggerResourcesProvider,
+                new ApplicationProperties(),
+                WebClient.builder(),
+                mock(ReactorLoadBalancerExchangeFilterFunction.class)
+            );
+    }
+
     @Test
     void shouldGet() {
         // Given
@@ -61,6 +77,7 @@ class GatewaySwaggerResourcesProviderTest {
             );
 
         // When
+        gatewaySwaggerResourcesProvider.refreshMicroservices();
         List<SwaggerResource> result = gatewaySwaggerResourcesProvider.get();
 
         // Then
@@ -76,4 +93,18 @@ class GatewaySwaggerResourcesProviderTest {
         assertThat(result.get(2).getName()).isEqualTo("beer");
         assertThat(result.get(2).getUrl()).isEqualTo("/services/beer/v3/api-docs");
     }
+
+    @Test
+    void shouldGetWithoutWaitingForRoutes() {
+        // Given
+        ReflectionTestUtils.setField(gatewaySwaggerResourcesProvider, "gatewayName", "burger");
+        when(routeLocator.getRoutes()).thenReturn(Flux.never());
+
+        // When
+        gatewaySwaggerResourcesProvider.refreshMicroservices();
+        List<SwaggerResource> result = gatewaySwaggerResourcesProvider.get();
+
+        // Then
+        assertThat(result).extracting(SwaggerResource::getName).containsExactly("burger (default)", "burger (management)");
+    }
 }
@@ -0,0 +1,168 @@
+package com.myapp.config.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+import com.myapp.web.filter.InstanceStatisticsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final ServiceInstance fastInstance = new DefaultServiceInstance("myapp1-fast", "myapp1", "localhost", 8081, false);
+
+    private final ServiceInstance slowInstance = new DefaultServiceInstance("myapp1-slow", "myapp1", "localhost", 8082, false);
+
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(fastInstance, slowInstance));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InstanceStatisticsFilter instanceStatisticsFilter;
+
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "myapp1";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider = mock(ObjectProvider.class);
+        when(supplierProvider.getIfAvailable(any())).thenReturn(supplier);
+        instanceStatisticsFilter = new InstanceStatisticsFilter(meterRegistry);
+        loadBalancer = new LatencyAwareLoadBalancer(supplierProvider, "myapp1", instanceStatisticsFilter);
+        // load the classes of the filter, so that the first measured call is not slowed down
+        call(new DefaultServiceInstance("myapp1-warm-up", "myapp1", "localhost", 8083, false), Mono.empty(), HttpStatus.OK);
+    }
+
+    @Test
+    void shouldPreferFasterInstance() {
+        call(fastInstance, Mono.empty(), HttpStatus.OK);
+        call(slowInstance, delay(50), HttpStatus.OK);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose()).isEqualTo(fastInstance);
+        }
+    }
+
+    @Test
+    void shouldAvoidFailingInstance() {
+        call(fastInstance, delay(10), HttpStatus.OK);
+        call(slowInstance, Mono.empty(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(choose()).isEqualTo(fastInstance);
+    }
+
+    @Test
+    void shouldAvoidBusyInstance() {
+        call(fastInstance, delay(5), HttpStatus.OK);
+        call(slowInstance, delay(5), HttpStatus.OK);
+        for (int i = 0; i < 10; i++) {
+            filter(fastInstance, Mono.never(), HttpStatus.OK).subscribe();
+        }
+
+        assertThat(choose()).isEqualTo(slowInstance);
+    }
+
+    @Test
+    void shouldExposeInstanceScores() {
+        call(fastInstance, Mono.empty(), HttpStatus.OK);
+
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "myapp1-fast").gauge()).isNotNull();
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.outstanding").tag("instance", "myapp1-fast").gauge().value())
+            .isZero();
+    }
+
+    @Test
+    void shouldDropStatisticsOfRemovedInstances() {
+        call(fastInstance, Mono.empty(), HttpStatus.OK);
+        call(slowInstance, Mono.empty(), HttpStatus.OK);
+        instances.remove(slowInstance);
+
+        assertThat(choose()).isEqualTo(fastInstance);
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "myapp1-slow").gauge()).isNull();
+    }
+
+    @Test
+    void shouldDropStatisticsOfRemovedInstancesWithUpperCaseServiceId() {
+        // the registry returns the service ids in upper case, while the load balancer is named after the lower case route
+        ServiceInstance registeredInstance = new DefaultServiceInstance("myapp1-registered", "MYAPP1", "localhost", 8084, false);
+        ServiceInstance removedInstance = new DefaultServiceInstance("myapp1-removed", "MYAPP1", "localhost", 8085, false);
+        instances.clear();
+        instances.addAll(List.of(registeredInstance, removedInstance));
+        call(registeredInstance, Mono.empty(), HttpStatus.OK);
+        call(removedInstance, Mono.empty(), HttpStatus.OK);
+        instances.remove(removedInstance);
+
+        assertThat(choose()).isEqualTo(registeredInstance);
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "myapp1-removed").gauge()).isNull();
+        assertThat(meterRegistry.find("gateway.loadbalancer.instance.score").tag("instance", "myapp1-registered").gauge()).isNotNull();
+    }
+
+    @Test
+    void shouldReturnEmptyResponseWithoutInstances() {
+        instances.clear();
+
+        assertThat(loadBalancer.choose(new DefaultRequest<>()).block().hasServer()).isFalse();
+    }
+
+    private ServiceInstance choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+    }
+
+    /**
+     * A response taking the given time on the calling thread, so that the statistics are recorded once the call returns.
+     */
+    private static Mono<Void> delay(long millis) {
+        return Mono.fromRunnable(
+            () -> {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+    }
+
+    private void call(ServiceInstance instance, Mono<Void> response, HttpStatus status) {
+        filter(instance, response, status).block();
+    }
+
+    private Mono<Void> filter(ServiceInstance instance, Mono<Void> response, HttpStatus status) {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/myapp1/api/as").build());
+        Response<ServiceInstance> loadBalancerResponse = new DefaultResponse(instance);
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, loadBalancerResponse);
+        GatewayFilterChain chain = filteredExchange -> response.then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(status)));
+        return instanceStatisticsFilter.filter(exchange, chain);
+    }
+}
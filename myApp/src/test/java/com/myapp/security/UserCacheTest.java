@@ -0,0 +1,112 @@
+package com.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.domain.User;
+import com.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link UserCache}.
+ */
+class UserCacheTest {
+
+    private UserRepository userRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserCache userCache;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        userRepository = mock(UserRepository.class);
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, applicationProperties, meterRegistry);
+        user = new User();
+        user.setId(1L);
+        user.setLogin("john");
+        user.setEmail("john@localhost");
+        when(userRepository.findOneWithAuthoritiesByLogin("john")).thenReturn(Mono.just(user));
+        when(userRepository.findOneWithAuthoritiesByEmailIgnoreCase("John@Localhost")).thenReturn(Mono.just(user));
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromTheCache() {
+        assertThat(userCache.findOneWithAuthoritiesByLogin("john").block()).isSameAs(user);
+        assertThat(userCache.findOneWithAuthoritiesByLogin("john").block()).isSameAs(user);
+        assertThat(userCache.findOneWithAuthoritiesByEmail("John@Localhost").block()).isSameAs(user);
+        assertThat(userCache.findOneWithAuthoritiesByEmail("John@Localhost").block()).isSameAs(user);
+
+        verify(userRepository, times(1)).findOneWithAuthoritiesByLogin("john");
+        verify(userRepository, times(1)).findOneWithAuthoritiesByEmailIgnoreCase("John@Localhost");
+        assertThat(meterRegistry.get("security.user.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("security.user.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictTheUserUnderAllItsKeys() {
+        userCache.findOneWithAuthoritiesByLogin("john").block();
+        userCache.findOneWithAuthoritiesByEmail("John@Localhost").block();
+
+        User renamedUser = new User();
+        renamedUser.setId(1L);
+        renamedUser.setLogin("johnny");
+        renamedUser.setEmail("johnny@localhost");
+        userCache.evict(renamedUser);
+
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictTheUserByLogin() {
+        userCache.findOneWithAuthoritiesByLogin("john").block();
+        userCache.findOneWithAuthoritiesByEmail("John@Localhost").block();
+
+        userCache.evict("john");
+
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheAUserEvictedWhileLoading() {
+        when(userRepository.findOneWithAuthoritiesByLogin("john"))
+            .thenReturn(Mono.fromSupplier(() -> user).doOnSubscribe(subscription -> userCache.evict(user)));
+
+        userCache.findOneWithAuthoritiesByLogin("john").block();
+
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheMissingUsers() {
+        when(userRepository.findOneWithAuthoritiesByLogin("unknown")).thenReturn(Mono.empty());
+
+        assertThat(userCache.findOneWithAuthoritiesByLogin("unknown").block()).isNull();
+
+        assertThat(userCache.size()).isZero();
+    }
+
+    @Test
+    void shouldBypassTheCacheWhenDisabled() {
+        applicationProperties.getSecurity().getUserCache().setEnabled(false);
+
+        userCache.findOneWithAuthoritiesByLogin("john").block();
+        userCache.findOneWithAuthoritiesByLogin("john").block();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin("john");
+        assertThat(userCache.size()).isZero();
+    }
+}
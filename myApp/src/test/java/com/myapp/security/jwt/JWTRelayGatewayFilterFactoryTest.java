@@ -0,0 +1,146 @@
+package com.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+class JWTRelayGatewayFilterFactoryTest {
+
+    private TokenProvider tokenProvider;
+
+    private JWTFilter jwtFilter;
+
+    private GatewayFilter relayFilter;
+
+    @BeforeEach
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), new SimpleMeterRegistry());
+        jwtFilter = new JWTFilter(tokenProvider);
+        relayFilter = new JWTRelayGatewayFilterFactory().apply(new Object());
+    }
+
+    @Test
+    void testRelayReusesVerificationFromJWTFilter() {
+        String jwt = createToken();
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/myapp1/api/as").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt)
+        );
+        AtomicReference<ServerWebExchange> relayed = new AtomicReference<>();
+
+        jwtFilter
+            .filter(
+                exchange,
+                it ->
+                    relayFilter.filter(
+                        it,
+                        relayedExchange -> {
+                            relayed.set(relayedExchange);
+                            return Mono.empty();
+                        }
+                    )
+            )
+            .block();
+
+        assertThat(exchange.<Object>getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE)).isNotNull();
+        assertThat(relayed.get()).isSameAs(exchange);
+        assertThat(relayed.get().getRequest().getHeaders().getFirst(JWTFilter.AUTHORIZATION_HEADER)).isEqualTo("Bearer " + jwt);
+    }
+
+    @Test
+    void testRelayWithoutJWTFilterPassesExchangeThrough() {
+        String jwt = createToken();
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/myapp1/api/as").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt)
+        );
+        AtomicReference<ServerWebExchange> relayed = new AtomicReference<>();
+
+        relayFilter
+            .filter(
+                exchange,
+                relayedExchange -> {
+                    relayed.set(relayedExchange);
+                    return Mono.empty();
+                }
+            )
+            .block();
+
+        assertThat(relayed.get()).isSameAs(exchange);
+        assertThat(relayed.get().getRequest().getHeaders().getFirst(JWTFilter.AUTHORIZATION_HEADER)).isEqualTo("Bearer " + jwt);
+    }
+
+    @Test
+    void testRelayWithInvalidTokenPassesExchangeThrough() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/myapp1/api/as").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer invalid")
+        );
+        AtomicReference<ServerWebExchange> relayed = new AtomicReference<>();
+
+        relayFilter
+            .filter(
+                exchange,
+                relayedExchange -> {
+                    relayed.set(relayedExchange);
+                    return Mono.empty();
+                }
+            )
+            .block();
+
+        assertThat(relayed.get()).isSameAs(exchange);
+    }
+
+    @Test
+    void testRelayRejectsMalformedAuthorization() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/myapp1/api/as").header(JWTFilter.AUTHORIZATION_HEADER, "Basic dXNlcjp1c2Vy")
+        );
+
+        assertThatThrownBy(() -> relayFilter.filter(exchange, relayedExchange -> Mono.empty()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRelayWithoutAuthorization() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/myapp1/api/as"));
+        AtomicReference<ServerWebExchange> relayed = new AtomicReference<>();
+
+        relayFilter
+            .filter(
+                exchange,
+                relayedExchange -> {
+                    relayed.set(relayedExchange);
+                    return Mono.empty();
+                }
+            )
+            .block();
+
+        assertThat(relayed.get()).isSameAs(exchange);
+        assertThat(relayed.get().getRequest().getHeaders().containsKey(JWTFilter.AUTHORIZATION_HEADER)).isFalse();
+    }
+
+    private String createToken() {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        return tokenProvider.createToken(authentication, false);
+    }
+}
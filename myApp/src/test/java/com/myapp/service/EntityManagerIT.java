@@ -0,0 +1,161 @@
+package com.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.myapp.IntegrationTest;
+import com.myapp.domain.A;
+import com.myapp.repository.ARepository;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
+
+/**
+ * Integration tests for {@link EntityManager}.
+ */
+@IntegrationTest
+class EntityManagerIT {
+
+    private static final EntityManager.LinkTable LINK_TABLE = new EntityManager.LinkTable("test_link", "entity_id", "reference_id");
+
+    private static final Long ENTITY_ID = 1L;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ARepository aRepository;
+
+    @Autowired
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @BeforeEach
+    public void init() {
+        aRepository.deleteAll().block();
+        r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql(
+                "CREATE TABLE IF NOT EXISTS " +
+                LINK_TABLE.tableName +
+                " (entity_id BIGINT NOT NULL, reference_id BIGINT NOT NULL, PRIMARY KEY (entity_id, reference_id))"
+            )
+            .then()
+            .block();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        aRepository.deleteAll().block();
+        r2dbcEntityTemplate.getDatabaseClient().sql("DROP TABLE " + LINK_TABLE.tableName).then().block();
+    }
+
+    @Test
+    void assertThatEquivalentSortsShareTheSelectTemplate() {
+        String template = createSelectTemplate(PageRequest.of(0, 20, Sort.by(Sort.Order.asc("id"))));
+
+        assertThat(createSelectTemplate(PageRequest.of(0, 20, Sort.by(Sort.Order.asc("id"), Sort.Order.desc("id")))))
+            .isSameAs(template);
+        assertThat(createSelectTemplate(PageRequest.of(0, 20, Sort.by(Sort.Order.asc("id").ignoreCase())))).isSameAs(template);
+        assertThat(createSelectTemplate(PageRequest.of(3, 50, Sort.by(Sort.Order.asc("id").nullsLast())))).isSameAs(template);
+        assertThat(createSelectTemplate(PageRequest.of(0, 20, Sort.by(Sort.Order.desc("id"))))).isNotEqualTo(template);
+    }
+
+    @Test
+    void assertThatUnknownSortsAreNotCached() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("unknown"));
+
+        assertThat(createSelectTemplate(pageable)).isNotSameAs(createSelectTemplate(pageable));
+    }
+
+    @Test
+    void assertThatSelectTemplateBindsThePage() {
+        List<Long> ids = IntStream
+            .range(0, 5)
+            .mapToObj(i -> aRepository.save(new A()).block().getId())
+            .sorted()
+            .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Order.asc("id")));
+
+        List<A> page = aRepository.findAllBy(pageable).collectList().block();
+
+        assertThat(page).extracting(A::getId).containsExactly(ids.get(2), ids.get(3));
+    }
+
+    @Test
+    void assertThatLinkTableIsUpdatedWithTheDifferences() {
+        assertThat(updateLinkTable(Stream.of(1L, 2L, 3L))).isEqualTo(3);
+        assertThat(findLinks()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        // 1 removed, 4 added, 2 and 3 unchanged
+        assertThat(updateLinkTable(Stream.of(2L, 3L, 4L))).isEqualTo(1);
+        assertThat(findLinks()).containsExactlyInAnyOrder(2L, 3L, 4L);
+
+        assertThat(updateLinkTable(Stream.of(4L, 3L, 2L))).isZero();
+        assertThat(findLinks()).containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void assertThatLinkTableIsUpdatedInChunks() {
+        // more links than a single multi-row insert and delete hold
+        List<Long> manyIds = LongStream.rangeClosed(1, 1201).boxed().collect(Collectors.toList());
+        assertThat(updateLinkTable(manyIds.stream())).isEqualTo(1201);
+        assertThat(findLinks()).hasSize(1201).containsAll(manyIds);
+
+        assertThat(updateLinkTable(Stream.of(1L, 1201L, 2000L))).isEqualTo(1);
+        assertThat(findLinks()).containsExactlyInAnyOrder(1L, 1201L, 2000L);
+
+        assertThat(updateLinkTable(Stream.empty())).isZero();
+        assertThat(findLinks()).isEmpty();
+    }
+
+    @Test
+    void assertThatLinkTableIsUpdatedForTheGivenEntityOnly() {
+        entityManager.updateLinkTable(LINK_TABLE, 2L, Stream.of(1L, 2L)).block();
+
+        updateLinkTable(Stream.of(1L));
+        updateLinkTable(Stream.empty());
+
+        assertThat(findLinks(2L)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    private Integer updateLinkTable(Stream<Long> referencedIds) {
+        return entityManager.updateLinkTable(LINK_TABLE, ENTITY_ID, referencedIds).block();
+    }
+
+    private List<Long> findLinks() {
+        return findLinks(ENTITY_ID);
+    }
+
+    private List<Long> findLinks(Long entityId) {
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .sql("SELECT reference_id FROM " + LINK_TABLE.tableName + " WHERE entity_id = :entityId")
+            .bind("entityId", entityId)
+            .map(row -> row.get(0, Long.class))
+            .all()
+            .collectList()
+            .block();
+    }
+
+    private String createSelectTemplate(Pageable pageable) {
+        Table table = Table.aliased("a", EntityManager.ENTITY_ALIAS);
+        return entityManager.createSelectTemplate(
+            A.class,
+            "test",
+            pageable,
+            () -> Select.builder().select(Column.aliased("id", table, EntityManager.ALIAS_PREFIX + "id")).from(table)
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.domain.MailOutboxEntry;
+import com.myapp.domain.User;
+import com.myapp.repository.JobLockRepository;
+import com.myapp.repository.MailOutboxRepository;
+import com.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link MailOutboxWorker}.
+ */
+class MailOutboxWorkerTest {
+
+    private final List<MimeMessage[]> batches = new ArrayList<>();
+
+    private MailSendException sendException;
+
+    private boolean rejectFirstMessage;
+
+    private MailOutboxRepository mailOutboxRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setup() throws MessagingException {
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        JobLockRepository jobLockRepository = mock(JobLockRepository.class);
+        MailService mailService = mock(MailService.class);
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+                batches.add(mimeMessages);
+                if (rejectFirstMessage) {
+                    throw new MailSendException(Map.<Object, Exception>of(mimeMessages[0], new MessagingException("Recipient rejected")));
+                }
+                if (sendException != null) {
+                    throw sendException;
+                }
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+
+        User user = new User();
+        user.setId(1L);
+        user.setLogin("john");
+        when(jobLockRepository.lock(anyString(), anyString(), any(), any())).thenReturn(Mono.just(true));
+        when(jobLockRepository.unlock(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(userRepository.findAllById(anyIterable())).thenReturn(Flux.just(user));
+        when(mailService.createEmailFromTemplate(any(), any())).thenAnswer(invocation -> new MimeMessage((Session) null));
+        when(mailOutboxRepository.deleteByIdIn(anyCollection())).thenReturn(Mono.empty());
+        when(mailOutboxRepository.save(any(MailOutboxEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mailOutboxRepository.countPending()).thenReturn(Mono.just(0L));
+
+        worker =
+            new MailOutboxWorker(
+                mailOutboxRepository,
+                userRepository,
+                jobLockRepository,
+                mailService,
+                javaMailSender,
+                new ApplicationProperties(),
+                meterRegistry
+            );
+    }
+
+    @Test
+    void shouldSendTheDueEmailsInOneBatch() {
+        when(mailOutboxRepository.findDueEntries(any(), anyInt())).thenReturn(Flux.just(createEntry(10L, 0), createEntry(11L, 0)));
+
+        assertThat(worker.deliver().block()).isEqualTo(2);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(2);
+        verify(mailOutboxRepository).deleteByIdIn(List.of(10L, 11L));
+        verify(mailOutboxRepository, never()).save(any(MailOutboxEntry.class));
+        assertThat(meterRegistry.get("mail.outbox.sent").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRetryTheRejectedEmailsLater() {
+        when(mailOutboxRepository.findDueEntries(any(), anyInt())).thenReturn(Flux.just(createEntry(10L, 0), createEntry(11L, 0)));
+        rejectFirstMessage = true;
+
+        worker.deliver().block();
+
+        verify(mailOutboxRepository).deleteByIdIn(argThat(ids -> ids.size() == 1));
+        ArgumentCaptor<MailOutboxEntry> saved = ArgumentCaptor.forClass(MailOutboxEntry.class);
+        verify(mailOutboxRepository).save(saved.capture());
+        assertThat(saved.getValue().getAttempts()).isEqualTo(1);
+        assertThat(saved.getValue().isFailed()).isFalse();
+        assertThat(saved.getValue().getLastError()).isEqualTo("Recipient rejected");
+        assertThat(saved.getValue().getNextAttemptDate()).isAfter(Instant.now().plusSeconds(20));
+        assertThat(meterRegistry.get("mail.outbox.sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.outbox.failed").tag("result", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveUpAfterTheLastAttempt() {
+        when(mailOutboxRepository.findDueEntries(any(), anyInt())).thenReturn(Flux.just(createEntry(10L, 4)));
+        sendException = new MailSendException("Connection refused");
+
+        worker.deliver().block();
+
+        ArgumentCaptor<MailOutboxEntry> saved = ArgumentCaptor.forClass(MailOutboxEntry.class);
+        verify(mailOutboxRepository).save(saved.capture());
+        assertThat(saved.getValue().getAttempts()).isEqualTo(5);
+        assertThat(saved.getValue().isFailed()).isTrue();
+        verify(mailOutboxRepository, never()).deleteByIdIn(anyCollection());
+        assertThat(meterRegistry.get("mail.outbox.failed").tag("result", "abandoned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropTheEmailsOfDeletedUsers() {
+        MailOutboxEntry orphan = createEntry(12L, 0);
+        orphan.setUserId(2L);
+        when(mailOutboxRepository.findDueEntries(any(), anyInt())).thenReturn(Flux.just(orphan));
+
+        worker.deliver().block();
+
+        assertThat(batches).isEmpty();
+        verify(mailOutboxRepository).deleteByIdIn(List.of(12L));
+    }
+
+    private static MailOutboxEntry createEntry(Long id, int attempts) {
+        MailOutboxEntry entry = new MailOutboxEntry();
+        entry.setId(id);
+        entry.setUserId(1L);
+        entry.setEmail("john@localhost");
+        entry.setLangKey("en");
+        entry.setTemplateName("mail/activationEmail");
+        entry.setTitleKey("email.activation.title");
+        entry.setAttempts(attempts);
+        entry.setNextAttemptDate(Instant.now());
+        return entry;
+    }
+}
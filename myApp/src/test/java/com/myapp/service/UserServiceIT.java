@@ -3,8 +3,10 @@ package com.myapp.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.myapp.IntegrationTest;
+import com.myapp.config.ApplicationProperties;
 import com.myapp.config.Constants;
 import com.myapp.domain.User;
+import com.myapp.repository.JobLockRepository;
 import com.myapp.repository.UserRepository;
 import com.myapp.service.dto.AdminUserDTO;
 import java.time.Instant;
@@ -44,6 +46,12 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     private User user;
 
     @BeforeEach
@@ -145,7 +153,7 @@ class UserServiceIT {
             .collectList()
             .block();
         assertThat(users).isNotEmpty();
-        userService.removeNotActivatedUsers();
+        userService.removeNotActivatedUsersReactively().block();
         users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo).collectList().block();
         assertThat(users).isEmpty();
     }
@@ -163,8 +171,59 @@ class UserServiceIT {
             .collectList()
             .block();
         assertThat(users).isEmpty();
-        userService.removeNotActivatedUsers();
+        userService.removeNotActivatedUsersReactively().block();
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId()).blockOptional();
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNotActivatedUsersAreDeletedInChunks() {
+        ApplicationProperties.UserPurge userPurge = applicationProperties.getUserPurge();
+        int chunkSize = userPurge.getChunkSize();
+        long pause = userPurge.getPauseBetweenChunksInMillis();
+        userPurge.setChunkSize(2);
+        userPurge.setPauseBetweenChunksInMillis(0);
+        try {
+            for (int i = 0; i < 5; i++) {
+                saveNotActivatedUser("purged" + i, Instant.now().minus(4, ChronoUnit.DAYS));
+            }
+            User recentUser = saveNotActivatedUser("recent", Instant.now());
+
+            Long count = userService.removeNotActivatedUsersReactively().block();
+
+            assertThat(count).isEqualTo(5);
+            assertThat(userRepository.findAll().collectList().block()).extracting(User::getLogin).containsExactly(recentUser.getLogin());
+        } finally {
+            userPurge.setChunkSize(chunkSize);
+            userPurge.setPauseBetweenChunksInMillis(pause);
+        }
+    }
+
+    @Test
+    void assertThatNotActivatedUsersAreNotDeletedWhileAnotherInstanceIsDeletingThem() {
+        User dbUser = saveNotActivatedUser(DEFAULT_LOGIN, Instant.now().minus(4, ChronoUnit.DAYS));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        assertThat(jobLockRepository.lock("remove-not-activated-users", "other-instance", now, now.plusMinutes(1)).block()).isTrue();
+        try {
+            Long count = userService.removeNotActivatedUsersReactively().block();
+
+            assertThat(count).isZero();
+            assertThat(userRepository.findById(dbUser.getId()).blockOptional()).isPresent();
+        } finally {
+            jobLockRepository.unlock("remove-not-activated-users", "other-instance", now).block();
+        }
+    }
+
+    private User saveNotActivatedUser(String login, Instant createdDate) {
+        User notActivatedUser = new User();
+        notActivatedUser.setLogin(login);
+        notActivatedUser.setPassword(RandomStringUtils.random(60));
+        notActivatedUser.setActivated(false);
+        notActivatedUser.setActivationKey(RandomUtil.generateActivationKey());
+        notActivatedUser.setEmail(login + "@localhost");
+        notActivatedUser.setCreatedBy(Constants.SYSTEM);
+        User dbUser = userRepository.save(notActivatedUser).block();
+        dbUser.setCreatedDate(createdDate);
+        return userRepository.save(dbUser).block();
+    }
 }
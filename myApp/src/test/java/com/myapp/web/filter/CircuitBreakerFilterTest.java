@@ -0,0 +1,173 @@
+package com.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class CircuitBreakerFilterTest {
+
+    private final Route route = Route
+        .async()
+        .id("ReactiveCompositeDiscoveryClient_MYAPP2")
+        .uri("lb://myapp2")
+        .predicate(exchange -> true)
+        .build();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ApplicationProperties applicationProperties;
+
+    private CircuitBreakerFilter circuitBreakerFilter;
+
+    private HttpStatus serviceStatus;
+
+    private int serviceCalls;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Gateway.CircuitBreaker circuitBreaker = applicationProperties.getGateway().getCircuitBreaker();
+        circuitBreaker.setSlidingWindowSize(4);
+        circuitBreaker.setMinimumNumberOfCalls(4);
+        circuitBreaker.setFailureRateThreshold(50);
+        circuitBreaker.setWaitDurationInOpenStateInSeconds(0);
+        circuitBreaker.setPermittedCallsInHalfOpenState(2);
+        circuitBreakerFilter = new CircuitBreakerFilter(applicationProperties, meterRegistry);
+        serviceStatus = HttpStatus.OK;
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateIsReached() {
+        applicationProperties.getGateway().getCircuitBreaker().setWaitDurationInOpenStateInSeconds(60);
+        filter();
+        filter();
+        serviceStatus = HttpStatus.BAD_GATEWAY;
+        filter();
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+        filter();
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.OPEN);
+
+        ServerWebExchange rejected = filter();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(serviceCalls).isEqualTo(4);
+        assertThat(
+            meterRegistry.find("gateway.circuit-breaker.transitions").tag("service", "myapp2").tag("to", "open").counter().count()
+        )
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCloseWhenTrialCallsSucceed() {
+        serviceStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        for (int i = 0; i < 4; i++) {
+            filter();
+        }
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.OPEN);
+        serviceStatus = HttpStatus.OK;
+
+        filter();
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.HALF_OPEN);
+        filter();
+
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.CLOSED);
+    }
+
+    @Test
+    void shouldOpenAgainWhenTrialCallsFail() {
+        serviceStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        for (int i = 0; i < 6; i++) {
+            filter();
+        }
+
+        assertThat(circuitBreakerFilter.getState("myapp2")).isEqualTo(CircuitBreakerFilter.State.OPEN);
+        assertThat(serviceCalls).isEqualTo(6);
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkhead() {
+        applicationProperties.getGateway().getCircuitBreaker().setMaxConcurrentCalls(1);
+        GatewayFilterChain pendingChain = mock(GatewayFilterChain.class);
+        when(pendingChain.filter(any())).thenReturn(Mono.never());
+        circuitBreakerFilter.filter(exchange(), pendingChain).subscribe();
+
+        ServerWebExchange rejected = filter();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(serviceCalls).isZero();
+        assertThat(meterRegistry.find("gateway.circuit-breaker.rejected").tag("reason", "bulkhead").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyServiceSettings() {
+        ApplicationProperties.Gateway.CircuitBreakerOverride settings = new ApplicationProperties.Gateway.CircuitBreakerOverride();
+        settings.setMaxConcurrentCalls(0);
+        applicationProperties.getGateway().getCircuitBreaker().getServices().put("myapp2", settings);
+
+        assertThat(filter().getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void shouldApplyDefaultSettingsToUnsetServiceSettings() {
+        ApplicationProperties.Gateway.CircuitBreakerOverride settings = new ApplicationProperties.Gateway.CircuitBreakerOverride();
+        settings.setFailureRateThreshold(100);
+        applicationProperties.getGateway().getCircuitBreaker().getServices().put("myapp2", settings);
+
+        ApplicationProperties.Gateway.CircuitBreakerSettings merged = applicationProperties
+            .getGateway()
+            .getCircuitBreaker()
+            .getSettings("myapp2");
+
+        assertThat(merged.getFailureRateThreshold()).isEqualTo(100);
+        assertThat(merged.getSlidingWindowSize()).isEqualTo(4);
+        assertThat(merged.getMinimumNumberOfCalls()).isEqualTo(4);
+        assertThat(merged.getPermittedCallsInHalfOpenState()).isEqualTo(2);
+        assertThat(merged.getWaitDurationInOpenStateInSeconds()).isZero();
+        assertThat(merged.getMaxConcurrentCalls()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldNotBreakWhenDisabled() {
+        applicationProperties.getGateway().getCircuitBreaker().setEnabled(false);
+        serviceStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        for (int i = 0; i < 6; i++) {
+            filter();
+        }
+
+        assertThat(serviceCalls).isEqualTo(6);
+    }
+
+    private ServerWebExchange filter() {
+        ServerWebExchange exchange = exchange();
+        GatewayFilterChain chain = filteredExchange ->
+            Mono.fromRunnable(
+                () -> {
+                    serviceCalls++;
+                    filteredExchange.getResponse().setStatusCode(serviceStatus);
+                }
+            );
+        circuitBreakerFilter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private ServerWebExchange exchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/myapp2/api/as").build());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
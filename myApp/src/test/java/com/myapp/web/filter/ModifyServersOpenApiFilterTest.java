@@ -7,6 +7,8 @@ import static org.mockito.Mockito.*;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -14,9 +16,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
@@ -27,11 +32,13 @@ class ModifyServersOpenApiFilterTest {
 
     private static final Logger log = LoggerFactory.getLogger(ModifyServersOpenApiFilterTest.class);
     private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+    private final ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
     private final ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
 
     @BeforeEach
     void setup() {
         when(filterChain.filter(captor.capture())).thenReturn(Mono.empty());
+        when(discoveryClient.getInstances(anyString())).thenReturn(Flux.empty());
     }
 
     @Test
@@ -44,7 +51,7 @@ class ModifyServersOpenApiFilterTest {
         ServerWebExchange exchange = MockServerWebExchange.from(request);
 
         // apply the filter to the request
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter());
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter(discoveryClient));
         modifyServersOpenApiFilter.filter(exchange, filterChain).subscribe();
 
         verify(modifyServersOpenApiFilter, times(1))
@@ -61,7 +68,7 @@ class ModifyServersOpenApiFilterTest {
         ServerWebExchange exchange = MockServerWebExchange.from(request);
 
         // apply the filter to the request
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter());
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = spy(new ModifyServersOpenApiFilter(discoveryClient));
         modifyServersOpenApiFilter.filter(exchange, filterChain).subscribe();
 
         verify(modifyServersOpenApiFilter, times(0))
@@ -70,7 +77,7 @@ class ModifyServersOpenApiFilterTest {
 
     @Test
     void shouldOrderToMinusOne() {
-        ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter();
+        ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter(discoveryClient);
         assertEquals(modifyServersOpenApiFilter.getOrder(), -1);
     }
 
@@ -80,7 +87,7 @@ class ModifyServersOpenApiFilterTest {
         private final String path = "/services/service-test/instance-test/v3/api-docs";
         private final MockServerHttpRequest request = MockServerHttpRequest.get(path).build();
         private final ServerWebExchange exchange = MockServerWebExchange.from(request);
-        private final ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter();
+        private final ModifyServersOpenApiFilter modifyServersOpenApiFilter = new ModifyServersOpenApiFilter(discoveryClient);
 
         @Test
         void shouldRewriteBodyWhenBodyIsFluxAndResponseIsNotZipped() {
@@ -135,6 +142,75 @@ class ModifyServersOpenApiFilterTest {
             assertThat(interceptor.getRewritedBody()).isEmpty();
         }
 
+        @Test
+        void shouldServeCachedBodyWithETag() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+            interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap("{}".getBytes()))).subscribe();
+            String etag = exchange.getResponse().getHeaders().getETag();
+            assertThat(etag).isNotNull();
+            assertThat(modifyServersOpenApiFilter.getCachedDocumentCount()).isEqualTo(1);
+
+            MockServerWebExchange cachedExchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+            modifyServersOpenApiFilter.filter(cachedExchange, filterChain).block();
+            verify(filterChain, never()).filter(any());
+            assertThat(cachedExchange.getResponse().getHeaders().getETag()).isEqualTo(etag);
+            assertThat(cachedExchange.getResponse().getBodyAsString().block()).contains("\"servers\"");
+
+            MockServerWebExchange notModifiedExchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get(path).header(HttpHeaders.IF_NONE_MATCH, etag).build()
+            );
+            modifyServersOpenApiFilter.filter(notModifiedExchange, filterChain).block();
+            assertThat(notModifiedExchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        }
+
+        @Test
+        void shouldEvictCachedBodyWhenServiceChanges() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+            interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap("{}".getBytes()))).subscribe();
+
+            modifyServersOpenApiFilter.evictChangedDocuments();
+            assertThat(modifyServersOpenApiFilter.getCachedDocumentCount()).isEqualTo(1);
+
+            DefaultServiceInstance instance = new DefaultServiceInstance(
+                "instance-test",
+                "service-test",
+                "localhost",
+                8081,
+                false,
+                Map.of("version", "2")
+            );
+            when(discoveryClient.getInstances("service-test")).thenReturn(Flux.just(instance));
+            modifyServersOpenApiFilter.evictChangedDocuments();
+            assertThat(modifyServersOpenApiFilter.getCachedDocumentCount()).isZero();
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUsedBodiesWhenTooLarge() {
+            byte[] largeDocument = ("{\"description\":\"" + "a".repeat(9 * 1024 * 1024) + "\"}").getBytes(StandardCharsets.UTF_8);
+            for (String service : List.of("first", "second")) {
+                MockServerWebExchange serviceExchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+                modifyServersOpenApiFilter
+                    .createModifyServersOpenApiInterceptor(
+                        "/services/" + service + "/v3/api-docs",
+                        serviceExchange.getResponse(),
+                        serviceExchange.getResponse().bufferFactory()
+                    )
+                    .writeWith(Flux.just(serviceExchange.getResponse().bufferFactory().wrap(largeDocument)))
+                    .subscribe();
+            }
+
+            assertThat(modifyServersOpenApiFilter.getCachedDocumentCount()).isEqualTo(1);
+            assertThat(modifyServersOpenApiFilter.getCachedSize()).isLessThanOrEqualTo(16 * 1024 * 1024);
+        }
+
         private byte[] zipContent() {
             try {
                 ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream("{}".length());
@@ -0,0 +1,124 @@
+package com.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class RateLimitingFilterTest {
+
+    private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+
+    private final Route route = Route.async().id("myapp1").uri("http://localhost").predicate(exchange -> true).build();
+
+    private ApplicationProperties applicationProperties;
+
+    private RateLimitingFilter rateLimitingFilter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getGateway().getRateLimiting().setEnabled(true);
+        applicationProperties.getGateway().getRateLimiting().setLimit(2);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitingFilter = new RateLimitingFilter(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldRejectWithTooManyRequestsWhenLimitIsExceeded() {
+        assertThat(filter("user").getResponse().getStatusCode()).isNull();
+        assertThat(filter("user").getResponse().getStatusCode()).isNull();
+
+        ServerWebExchange rejected = filter("user");
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotEmpty();
+        assertThat(rejected.getResponse().getHeaders().getFirst(RateLimitingFilter.REMAINING_HEADER)).isEqualTo("0");
+        verify(filterChain, times(2)).filter(any());
+        assertThat(meterRegistry.get("gateway.rate-limiting.rejected").tag("route", "myapp1").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepOneBucketPerUser() {
+        filter("user");
+        filter("user");
+
+        assertThat(filter("admin").getResponse().getStatusCode()).isNull();
+        assertThat(rateLimitingFilter.getBucketCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldApplyRouteLimit() {
+        ApplicationProperties.Gateway.RateLimiting.Limit limit = new ApplicationProperties.Gateway.RateLimiting.Limit();
+        limit.setLimit(1L);
+        limit.setDurationInSeconds(60L);
+        applicationProperties.getGateway().getRateLimiting().getRoutes().put("myapp1", limit);
+
+        filter("user");
+
+        assertThat(filter("user").getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void shouldApplyDefaultValuesToUnsetRouteLimitFields() {
+        ApplicationProperties.Gateway.RateLimiting.Limit limit = new ApplicationProperties.Gateway.RateLimiting.Limit();
+        limit.setLimit(1L);
+        applicationProperties.getGateway().getRateLimiting().getRoutes().put("myapp1", limit);
+
+        filter("user");
+        ServerWebExchange rejected = filter("user");
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // refilled over the default duration of an hour
+        assertThat(Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isGreaterThan(60);
+    }
+
+    @Test
+    void shouldNotLimitWhenDisabled() {
+        applicationProperties.getGateway().getRateLimiting().setEnabled(false);
+
+        filter("user");
+        filter("user");
+
+        assertThat(filter("user").getResponse().getStatusCode()).isNull();
+        assertThat(rateLimitingFilter.getBucketCount()).isZero();
+    }
+
+    @Test
+    void shouldEvictIdleBuckets() {
+        filter("user");
+        applicationProperties.getGateway().getRateLimiting().setIdleTimeoutInSeconds(-1);
+
+        rateLimitingFilter.evictIdleBuckets();
+
+        assertThat(rateLimitingFilter.getBucketCount()).isZero();
+    }
+
+    private ServerWebExchange filter(String login) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/myapp1/api/as"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        exchange
+            .getAttributes()
+            .put(JWTFilter.AUTHENTICATION_ATTRIBUTE, new UsernamePasswordAuthenticationToken(login, "token", Collections.emptyList()));
+        rateLimitingFilter.filter(exchange, filterChain).block();
+        return exchange;
+    }
+}
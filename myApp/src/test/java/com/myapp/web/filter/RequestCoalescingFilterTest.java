@@ -0,0 +1,151 @@
+package com.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RequestCoalescingFilterTest {
+
+    private static final String PATH = "/services/myapp1/api/as";
+
+    private ApplicationProperties applicationProperties;
+
+    private RequestCoalescingFilter requestCoalescingFilter;
+
+    private final Sinks.Empty<Void> upstream = Sinks.empty();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private String body = "[{\"id\":1}]";
+
+    private final WebFilterChain chain = exchange -> {
+        upstreamCalls.incrementAndGet();
+        return upstream
+            .asMono()
+            .then(
+                Mono.defer(
+                    () -> {
+                        exchange.getResponse().setStatusCode(HttpStatus.OK);
+                        exchange.getResponse().getHeaders().set(HttpHeaders.ETAG, "\"1\"");
+                        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+                    }
+                )
+            );
+    };
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getGateway().getRequestCoalescing().setEnabled(true);
+        requestCoalescingFilter = new RequestCoalescingFilter(applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldShareResponseOfIdenticalRequests() {
+        MockServerWebExchange first = exchange(PATH, "user");
+        MockServerWebExchange second = exchange(PATH, "user");
+        requestCoalescingFilter.filter(first, chain).subscribe();
+        requestCoalescingFilter.filter(second, chain).subscribe();
+        assertThat(requestCoalescingFilter.getFlightCount()).isEqualTo(1);
+
+        upstream.tryEmitEmpty();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(body);
+        assertThat(requestCoalescingFilter.getFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldNotShareResponseBetweenUsers() {
+        requestCoalescingFilter.filter(exchange(PATH, "user"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange(PATH, "admin"), chain).subscribe();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldShareResponseOfSharedPathsBetweenUsers() {
+        applicationProperties.getGateway().getRequestCoalescing().setSharedPaths(List.of("/services/*/api/as"));
+        requestCoalescingFilter = new RequestCoalescingFilter(applicationProperties, new SimpleMeterRegistry());
+        requestCoalescingFilter.filter(exchange(PATH, "user"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange(PATH, "other"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange("/api/account", "user"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange("/api/account", "other"), chain).subscribe();
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentQueries() {
+        requestCoalescingFilter.filter(exchange(PATH + "?page=1", "user"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange(PATH + "?page=2", "user"), chain).subscribe();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldForwardWaitersWhenResponseIsTooLarge() {
+        applicationProperties.getGateway().getRequestCoalescing().setMaxBodySizeInBytes(4);
+        MockServerWebExchange second = exchange(PATH, "user");
+        requestCoalescingFilter.filter(exchange(PATH, "user"), chain).subscribe();
+        requestCoalescingFilter.filter(second, chain).subscribe();
+
+        upstream.tryEmitEmpty();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body);
+    }
+
+    @Test
+    void shouldNotShareResponseSettingCookies() {
+        WebFilterChain cookieChain = exchange -> {
+            exchange.getResponse().addCookie(ResponseCookie.from("session", "1").build());
+            return chain.filter(exchange);
+        };
+        requestCoalescingFilter.filter(exchange(PATH, "user"), cookieChain).subscribe();
+        requestCoalescingFilter.filter(exchange(PATH, "user"), cookieChain).subscribe();
+
+        upstream.tryEmitEmpty();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCoalesceWhenDisabled() {
+        applicationProperties.getGateway().getRequestCoalescing().setEnabled(false);
+        requestCoalescingFilter.filter(exchange(PATH, "user"), chain).subscribe();
+        requestCoalescingFilter.filter(exchange(PATH, "user"), chain).subscribe();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private MockServerWebExchange exchange(String path, String login) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+        exchange
+            .getAttributes()
+            .put(JWTFilter.AUTHENTICATION_ATTRIBUTE, new UsernamePasswordAuthenticationToken(login, "", Collections.emptyList()));
+        return exchange;
+    }
+}
@@ -0,0 +1,208 @@
+package com.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheFilterTest {
+
+    private static final String PATH = "/services/myapp1/api/as";
+
+    private ApplicationProperties applicationProperties;
+
+    private ResponseCacheFilter responseCacheFilter;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private String cacheControl = "max-age=60";
+
+    private String body = "[{\"id\":1}]";
+
+    private final WebFilterChain chain = exchange -> {
+        upstreamCalls.incrementAndGet();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+    };
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getGateway().getResponseCache().setEnabled(true);
+        responseCacheFilter = new ResponseCacheFilter(applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldServeCachedResponse() {
+        filter(exchange("user", "ROLE_USER"));
+
+        MockServerWebExchange cached = filter(exchange("user", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(cached.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cached.getResponse().getBodyAsString().block()).isEqualTo(body);
+        assertThat(cached.getResponse().getHeaders().getETag()).isNotNull();
+        assertThat(cached.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+        assertThat(responseCacheFilter.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAnswerNotModified() {
+        filter(exchange("user", "ROLE_USER"));
+        String etag = filter(exchange("user", "ROLE_USER")).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH).ifNoneMatch(etag).build());
+        authenticate(exchange, "user", "ROLE_USER");
+        filter(exchange);
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldShareResponseBetweenUsersWithSameAuthorities() {
+        cacheControl = "public, max-age=60";
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("other", "ROLE_USER"));
+        filter(exchange("admin", "ROLE_ADMIN"));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldShareSharedMaxAgeResponseBetweenUsersWithSameAuthorities() {
+        cacheControl = "s-maxage=60";
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("other", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldPartitionAuthenticatedResponseByUser() {
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("other", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldShareAnonymousResponse() {
+        filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH).build()));
+        filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH).build()));
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void shouldPartitionPrivateResponseByUser() {
+        cacheControl = "private, max-age=60";
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("other", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldSharePrivateResponseOfSharedPathBetweenUsersWithSameAuthorities() {
+        applicationProperties.getGateway().getResponseCache().setSharedPaths(List.of(PATH));
+        responseCacheFilter = new ResponseCacheFilter(applicationProperties, new SimpleMeterRegistry());
+        cacheControl = "private, max-age=60";
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("other", "ROLE_USER"));
+        filter(exchange("admin", "ROLE_ADMIN"));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheNoStoreResponse() {
+        cacheControl = "no-cache, no-store, max-age=0, must-revalidate";
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("user", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(responseCacheFilter.getEntryCount()).isZero();
+    }
+
+    @Test
+    void shouldRevalidateStaleResponseInBackground() {
+        cacheControl = "max-age=1, stale-while-revalidate=60";
+        filter(exchange("user", "ROLE_USER"));
+        cacheControl = "max-age=60";
+        body = "[{\"id\":2}]";
+
+        waitUntilStale();
+        MockServerWebExchange stale = filter(exchange("user", "ROLE_USER"));
+
+        assertThat(stale.getResponse().getBodyAsString().block()).isEqualTo("[{\"id\":1}]");
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(filter(exchange("user", "ROLE_USER")).getResponse().getBodyAsString().block()).isEqualTo(body);
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedResponses() {
+        applicationProperties.getGateway().getResponseCache().setMaxSizeInBytes(50);
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("admin", "ROLE_ADMIN"));
+
+        assertThat(responseCacheFilter.getEntryCount()).isEqualTo(1);
+        assertThat(responseCacheFilter.getSize()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+        applicationProperties.getGateway().getResponseCache().setEnabled(false);
+        filter(exchange("user", "ROLE_USER"));
+        filter(exchange("user", "ROLE_USER"));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private MockServerWebExchange filter(MockServerWebExchange exchange) {
+        responseCacheFilter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange exchange(String login, String authority) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH).build());
+        authenticate(exchange, login, authority);
+        return exchange;
+    }
+
+    private void authenticate(MockServerWebExchange exchange, String login, String authority) {
+        exchange
+            .getAttributes()
+            .put(
+                JWTFilter.AUTHENTICATION_ATTRIBUTE,
+                new UsernamePasswordAuthenticationToken(login, "", List.of(new SimpleGrantedAuthority(authority)))
+            );
+    }
+
+    private void waitUntilStale() {
+        try {
+            Thread.sleep(1100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import com.myapp.web.rest.vm.RouteVM;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class RouteRegistryTest {
+
+    private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+
+    private final RouteDefinitionLocator routeDefinitionLocator = mock(RouteDefinitionLocator.class);
+
+    private final ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+
+    private final RouteDefinition routeDefinition = routeDefinition("ReactiveCompositeDiscoveryClient_MYAPP1", "/services/myapp1/**");
+
+    private final Route route = route(routeDefinition);
+
+    private final ServiceInstance instance = new DefaultServiceInstance("myapp1-1", "myapp1", "localhost", 8081, false);
+
+    private RouteRegistry routeRegistry;
+
+    @BeforeEach
+    void setup() {
+        when(routeDefinitionLocator.getRouteDefinitions())
+            .thenReturn(Flux.just(routeDefinition, routeDefinition("ReactiveCompositeDiscoveryClient_MYAPP", "/services/myapp/**")));
+        when(discoveryClient.getInstances("myapp1")).thenReturn(Flux.just(instance));
+        routeRegistry = new RouteRegistry(routeDefinitionLocator, discoveryClient, new SimpleMeterRegistry(), "myapp");
+    }
+
+    @Test
+    void shouldServeRoutesWithInstances() {
+        routeRegistry.refreshRoutes();
+
+        List<RouteVM> routes = routeRegistry.getRoutes().block();
+
+        assertThat(routes).hasSize(1);
+        assertThat(routes.get(0).getServiceId()).isEqualTo("myapp1");
+        assertThat(routes.get(0).getPath()).isEqualTo("/services/myapp1/**");
+        assertThat(routes.get(0).getServiceInstances()).containsExactly(instance);
+        verify(discoveryClient, never()).getInstances("myapp");
+    }
+
+    @Test
+    void shouldCountRequestsAndErrors() {
+        routeRegistry.refreshRoutes();
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+        filter(HttpStatus.OK);
+        filter(HttpStatus.OK);
+        filter(HttpStatus.OK);
+        filter(HttpStatus.BAD_GATEWAY);
+
+        RouteVM routeVM = routeRegistry.getRoutes().block().get(0);
+
+        assertThat(routeVM.getRequestCount()).isEqualTo(4);
+        assertThat(routeVM.getInFlightRequests()).isZero();
+        assertThat(routeVM.getErrorRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    void shouldCountInFlightRequests() {
+        routeRegistry.refreshRoutes();
+        when(filterChain.filter(any())).thenReturn(Mono.never());
+        ServerWebExchange exchange = exchange();
+        routeRegistry.filter(exchange, filterChain).subscribe().dispose();
+        routeRegistry.filter(exchange(), filterChain).subscribe();
+
+        assertThat(routeRegistry.getRoutes().block().get(0).getInFlightRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldComputeErrorRateOfLastWindow() {
+        routeRegistry.refreshRoutes();
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+        filter(HttpStatus.INTERNAL_SERVER_ERROR);
+        routeRegistry.rollErrorRateWindow();
+        filter(HttpStatus.OK);
+        routeRegistry.rollErrorRateWindow();
+
+        assertThat(routeRegistry.getRoutes().block().get(0).getErrorRate()).isZero();
+    }
+
+    @Test
+    void shouldUpdateChangedRoutes() {
+        routeRegistry.refreshRoutes();
+        when(routeDefinitionLocator.getRouteDefinitions())
+            .thenReturn(Flux.just(routeDefinition("ReactiveCompositeDiscoveryClient_MYAPP1", "/services/myapp1/v2/**")));
+
+        routeRegistry.refreshRoutes();
+
+        assertThat(routeRegistry.getRoutes().block().get(0).getPath()).isEqualTo("/services/myapp1/v2/**");
+    }
+
+    @Test
+    void shouldUpdateInstancesOfUnchangedRoutes() {
+        routeRegistry.refreshRoutes();
+        ServiceInstance otherInstance = new DefaultServiceInstance("myapp1-2", "myapp1", "localhost", 8082, false);
+        when(discoveryClient.getInstances("myapp1")).thenReturn(Flux.just(instance, otherInstance));
+
+        routeRegistry.refreshRoutes();
+
+        RouteVM routeVM = routeRegistry.getRoutes().block().get(0);
+        assertThat(routeVM.getPath()).isEqualTo("/services/myapp1/**");
+        assertThat(routeVM.getServiceInstances()).containsExactly(instance, otherInstance);
+    }
+
+    @Test
+    void shouldDropRemovedRoutes() {
+        routeRegistry.refreshRoutes();
+        when(routeDefinitionLocator.getRouteDefinitions()).thenReturn(Flux.empty());
+
+        routeRegistry.refreshRoutes();
+
+        assertThat(routeRegistry.getRoutes().block()).isEmpty();
+    }
+
+    private void filter(HttpStatus status) {
+        ServerWebExchange exchange = exchange();
+        exchange.getResponse().setStatusCode(status);
+        routeRegistry.filter(exchange, filterChain).block();
+    }
+
+    private ServerWebExchange exchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/services/myapp1/api/as").build());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static RouteDefinition routeDefinition(String id, String pattern) {
+        PredicateDefinition predicate = new PredicateDefinition();
+        predicate.setName("Path");
+        predicate.addArg("pattern", pattern);
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setUri(URI.create("lb://" + id.substring(id.indexOf('_') + 1)));
+        definition.setPredicates(List.of(predicate));
+        return definition;
+    }
+
+    private static Route route(RouteDefinition definition) {
+        String pattern = definition.getPredicates().get(0).getArgs().get("pattern");
+        return Route
+            .async()
+            .id(definition.getId())
+            .uri(definition.getUri())
+            .predicate(new PathRoutePredicateFactory().apply(config -> config.setPatterns(List.of(pattern))))
+            .build();
+    }
+}
@@ -1,13 +1,18 @@
 package com.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 
 import com.myapp.IntegrationTest;
 import com.myapp.domain.A;
+import com.myapp.domain.B;
 import com.myapp.repository.ARepository;
+import com.myapp.repository.BRepository;
 import com.myapp.service.EntityManager;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
@@ -20,8 +25,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
@@ -41,6 +49,9 @@ class AResourceIT {
     @Autowired
     private ARepository aRepository;
 
+    @Autowired
+    private BRepository bRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -176,6 +187,93 @@ class AResourceIT {
             .value(hasItem(a.getId().intValue()));
     }
 
+    @Test
+    void getAllASWithBs() {
+        // Initialize the database
+        aRepository.save(a).block();
+        B b = bRepository.save(new B().a(a)).block();
+
+        try {
+            // Get all the aList with their bs
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "?include=bs")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.[?(@.id == " + a.getId() + ")].bs[*].id")
+                .value(hasItem(b.getId().intValue()));
+        } finally {
+            bRepository.delete(b).block();
+        }
+    }
+
+    @Test
+    void getAllASWithInvalidInclude() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?include=unknown")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllASByKeyset() {
+        // Initialize the database
+        A first = aRepository.save(createEntity(em)).block();
+        A second = aRepository.save(createEntity(em)).block();
+        A third = aRepository.save(createEntity(em)).block();
+
+        // Get the first page
+        EntityExchangeResult<List<A>> firstPage = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(A.class)
+            .returnResult();
+
+        assertThat(firstPage.getResponseBody()).containsExactly(third, second);
+        String link = firstPage.getResponseHeaders().getFirst(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+
+        // Follow the link to the next page
+        EntityExchangeResult<List<A>> nextPage = webTestClient
+            .get()
+            .uri(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(A.class)
+            .returnResult();
+
+        assertThat(nextPage.getResponseBody()).containsExactly(first);
+        assertThat(nextPage.getResponseHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+    }
+
+    @Test
+    void getAllASByKeysetWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=2&cursor=invalid")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllASByKeysetWithInvalidSize() {
+        webTestClient.get().uri(ENTITY_API_URL + "?size=0").accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void getA() {
         // Initialize the database
@@ -419,4 +517,82 @@ class AResourceIT {
         List<A> aList = aRepository.findAll().collectList().block();
         assertThat(aList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    void createAllAS() throws Exception {
+        int databaseSizeBeforeCreate = aRepository.findAll().collectList().block().size();
+
+        // Create two aS, along with an a with an ID
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(createEntity(em), new A().id(1L), createEntity(em))))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].index")
+            .value(contains(0, 1, 2))
+            .jsonPath("$.[*].status")
+            .value(contains(201, 400, 201))
+            .jsonPath("$.[1].errorKey")
+            .isEqualTo("idexists")
+            .jsonPath("$.[0].id")
+            .isNumber()
+            .jsonPath("$.[2].id")
+            .isNumber();
+
+        // Validate the A in the database
+        List<A> aList = aRepository.findAll().collectList().block();
+        assertThat(aList).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    void updateAllAS() throws Exception {
+        // Initialize the database
+        aRepository.save(a).block();
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(new A().id(a.getId()), new A().id(Long.MAX_VALUE), new A())))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .value(contains(200, 404, 400))
+            .jsonPath("$.[*].errorKey")
+            .value(hasItems("idnotfound", "idnull"));
+    }
+
+    @Test
+    void deleteAllAS() throws Exception {
+        // Initialize the database
+        aRepository.save(a).block();
+        A otherA = aRepository.save(createEntity(em)).block();
+
+        int databaseSizeBeforeDelete = aRepository.findAll().collectList().block().size();
+
+        // Delete the aS, one of them twice
+        webTestClient
+            .method(HttpMethod.DELETE)
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(a.getId(), Long.MAX_VALUE, a.getId(), otherA.getId())))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .value(contains(204, 404, 400, 204))
+            .jsonPath("$.[2].errorKey")
+            .isEqualTo("idduplicate");
+
+        // Validate the database contains two less items
+        List<A> aList = aRepository.findAll().collectList().block();
+        assertThat(aList).hasSize(databaseSizeBeforeDelete - 2);
+    }
 }
@@ -1,13 +1,16 @@
 package com.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 
 import com.myapp.IntegrationTest;
 import com.myapp.domain.B;
 import com.myapp.repository.BRepository;
 import com.myapp.service.EntityManager;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
@@ -20,8 +23,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
@@ -176,6 +182,40 @@ class BResourceIT {
             .value(hasItem(b.getId().intValue()));
     }
 
+    @Test
+    void getAllBSByKeysetSortedByNullableProperty() {
+        // Initialize the database, with bs without a
+        B first = bRepository.save(createEntity(em)).block();
+        B second = bRepository.save(createEntity(em)).block();
+
+        // Get the first page: the nullable aId cannot order a keyset, so the bs are ordered by id
+        EntityExchangeResult<List<B>> firstPage = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?size=1&sort=aId,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(B.class)
+            .returnResult();
+
+        assertThat(firstPage.getResponseBody()).containsExactly(first);
+        String link = firstPage.getResponseHeaders().getFirst(HttpHeaders.LINK);
+
+        // Follow the link to the next page
+        EntityExchangeResult<List<B>> nextPage = webTestClient
+            .get()
+            .uri(URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(B.class)
+            .returnResult();
+
+        assertThat(nextPage.getResponseBody()).containsExactly(second);
+    }
+
     @Test
     void getB() {
         // Initialize the database
@@ -419,4 +459,72 @@ class BResourceIT {
         List<B> bList = bRepository.findAll().collectList().block();
         assertThat(bList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    void createAllBS() throws Exception {
+        int databaseSizeBeforeCreate = bRepository.findAll().collectList().block().size();
+        B bWithMissingA = createEntity(em);
+        bWithMissingA.setAId(Long.MAX_VALUE);
+
+        // Create a b, along with a b with an ID and a b referring to a missing a
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(createEntity(em), new B().id(1L), bWithMissingA)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .value(contains(201, 400, 400))
+            .jsonPath("$.[*].errorKey")
+            .value(hasItems("idexists", "anotfound"));
+
+        // Validate the B in the database
+        List<B> bList = bRepository.findAll().collectList().block();
+        assertThat(bList).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    void updateAllBS() throws Exception {
+        // Initialize the database
+        bRepository.save(b).block();
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(new B().id(b.getId()), new B().id(Long.MAX_VALUE), new B())))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .value(contains(200, 404, 400));
+    }
+
+    @Test
+    void deleteAllBS() throws Exception {
+        // Initialize the database
+        bRepository.save(b).block();
+
+        int databaseSizeBeforeDelete = bRepository.findAll().collectList().block().size();
+
+        webTestClient
+            .method(HttpMethod.DELETE)
+            .uri(ENTITY_API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(List.of(b.getId(), Long.MAX_VALUE)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].status")
+            .value(contains(204, 404));
+
+        // Validate the database contains one less item
+        List<B> bList = bRepository.findAll().collectList().block();
+        assertThat(bList).hasSize(databaseSizeBeforeDelete - 1);
+    }
 }
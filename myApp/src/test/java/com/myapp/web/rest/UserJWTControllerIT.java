@@ -4,13 +4,19 @@ import com.myapp.IntegrationTest;
 import com.myapp.config.Constants;
 import com.myapp.domain.User;
 import com.myapp.repository.UserRepository;
+import com.myapp.security.PasswordHashingExecutor;
 import com.myapp.web.rest.vm.LoginVM;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Integration tests for the {@link UserJWTController} REST controller.
@@ -25,6 +31,9 @@ class UserJWTControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -106,4 +115,64 @@ class UserJWTControllerIT {
             .jsonPath("$.id_token")
             .doesNotExist();
     }
+
+    @Test
+    void testAuthorizeWhenPasswordHashingIsBusy() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-busy");
+        user.setEmail("user-jwt-controller-busy@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-busy");
+        login.setPassword("test");
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturatePasswordHashing(release);
+
+            webTestClient
+                .post()
+                .uri("/api/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TestUtil.convertObjectToJsonBytes(login))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader()
+                .valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectHeader()
+                .doesNotExist("Authorization")
+                .expectBody()
+                .jsonPath("$.id_token")
+                .doesNotExist();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Occupy every password hashing thread until released, then fill the queue.
+     */
+    private void saturatePasswordHashing(CountDownLatch release) {
+        Scheduler scheduler = passwordHashingExecutor.getScheduler();
+        try {
+            while (true) {
+                scheduler.schedule(
+                    () -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                );
+            }
+        } catch (RejectedExecutionException e) {
+            // the queue is full
+        }
+    }
 }
@@ -287,6 +287,54 @@ class UserResourceIT {
         assertThat(foundUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
     }
 
+    @Test
+    void getAllUsersPagedAndSorted() {
+        // Initialize the database
+        userRepository.save(user).block();
+        User otherUser = createEntity(em);
+        otherUser.setLogin(UPDATED_LOGIN);
+        otherUser.setEmail(UPDATED_EMAIL);
+        userRepository.save(otherUser).block();
+        authorityRepository
+            .findById(AuthoritiesConstants.ADMIN)
+            .flatMap(authority -> userRepository.saveUserAuthority(otherUser.getId(), authority.getName()))
+            .block();
+
+        // Get the second page, sorted by login
+        List<AdminUserDTO> foundUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,ASC&page=1&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "2")
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(foundUsers).hasSize(1);
+        assertThat(foundUsers.get(0).getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(foundUsers.get(0).getAuthorities()).isEmpty();
+
+        // Get the first page, sorted by login
+        AdminUserDTO firstUser = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,ASC&page=0&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .blockFirst();
+
+        assertThat(firstUser.getLogin()).isEqualTo(UPDATED_LOGIN);
+        assertThat(firstUser.getAuthorities()).containsExactly(AuthoritiesConstants.ADMIN);
+    }
+
     @Test
     void getUser() {
         // Initialize the database
@@ -0,0 +1,87 @@
+package com.myapp.config;
+
+import com.myapp.config.cache.CacheInvalidationBus;
+import com.myapp.config.cache.CacheInvalidationListener;
+import com.myapp.config.cache.CacheInvalidationTransport;
+import com.myapp.config.cache.HttpCacheInvalidationTransport;
+import com.myapp.config.cache.InProcessCacheInvalidationTransport;
+import com.myapp.security.jwt.TokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Sends the second-level cache evictions of this replica to the others, through the transport set in
+ * {@code application.cache.invalidation.transport}.
+ */
+@Configuration
+@ConditionalOnExpression("'${application.cache.invalidation.transport:http}' != 'none'")
+public class CacheInvalidationConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "http", matchIfMissing = true)
+    public HttpCacheInvalidationTransport httpCacheInvalidationTransport(
+        DiscoveryClient discoveryClient,
+        ObjectProvider<Registration> registration,
+        TokenProvider tokenProvider,
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties,
+        @Value("${spring.application.name}") String serviceId
+    ) {
+        return new HttpCacheInvalidationTransport(
+            discoveryClient,
+            registration.getIfAvailable(),
+            tokenProvider,
+            restTemplateBuilder,
+            applicationProperties,
+            cacheInvalidationExecutor(),
+            serviceId
+        );
+    }
+
+    /**
+     * Sends the evictions to the other replicas, away from the scheduler threads which flush them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "http", matchIfMissing = true)
+    public ThreadPoolTaskExecutor cacheInvalidationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-invalidation-");
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "in-process")
+    public InProcessCacheInvalidationTransport inProcessCacheInvalidationTransport() {
+        return new InProcessCacheInvalidationTransport();
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationTransport transport,
+        MeterRegistry meterRegistry
+    ) {
+        return new CacheInvalidationBus(entityManagerFactory, transport, meterRegistry);
+    }
+
+    @Bean
+    public CacheInvalidationListener cacheInvalidationListener(
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
+        return new CacheInvalidationListener(entityManagerFactory, cacheInvalidationBus);
+    }
+}
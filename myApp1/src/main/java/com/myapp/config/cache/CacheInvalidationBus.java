@@ -0,0 +1,185 @@
+package com.myapp.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the second-level caches of the replicas of this service consistent, by sending the evictions of each replica
+ * to the others.
+ * <p>
+ * The evictions of a transaction are gathered, each one kept once, and only sent if the transaction commits. The
+ * evictions of the transactions committed within {@code application.cache.invalidation.debounce-in-millis} are sent in
+ * a single message through the {@link CacheInvalidationTransport}. Received evictions are applied to the local cache,
+ * so that the next read goes to the database.
+ */
+public class CacheInvalidationBus {
+
+    private static final String METRIC_NAME = "cache.invalidation";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationTransport transport;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Counter sent;
+
+    private final Counter received;
+
+    private final Counter failed;
+
+    private CacheInvalidationMessage pending = new CacheInvalidationMessage();
+
+    public CacheInvalidationBus(
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationTransport transport,
+        MeterRegistry meterRegistry
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transport = transport;
+        this.sent = Counter.builder(METRIC_NAME + ".messages").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder(METRIC_NAME + ".messages").tag("direction", "received").register(meterRegistry);
+        this.failed = Counter.builder(METRIC_NAME + ".failed").register(meterRegistry);
+        transport.setListener(this::receive);
+    }
+
+    /**
+     * Send the eviction of an entity to the other replicas, once the current transaction commits.
+     *
+     * @param entityName the name of the entity.
+     * @param id the id of the entity.
+     */
+    public void invalidateEntity(String entityName, Long id) {
+        CacheInvalidationMessage message = getTransactionMessage();
+        if (message != null) {
+            message.addEntity(entityName, id);
+        } else {
+            synchronized (this) {
+                pending.addEntity(entityName, id);
+            }
+        }
+    }
+
+    /**
+     * Send the eviction of a collection to the other replicas, once the current transaction commits.
+     *
+     * @param role the role of the collection.
+     * @param ownerId the id of the owner of the collection.
+     */
+    public void invalidateCollection(String role, Long ownerId) {
+        CacheInvalidationMessage message = getTransactionMessage();
+        if (message != null) {
+            message.addCollection(role, ownerId);
+        } else {
+            synchronized (this) {
+                pending.addCollection(role, ownerId);
+            }
+        }
+    }
+
+    /**
+     * Send the pending evictions to the other replicas.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.debounce-in-millis:100}")
+    public void flush() {
+        CacheInvalidationMessage message;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            message = pending;
+            pending = new CacheInvalidationMessage();
+        }
+        message.setOrigin(origin);
+        try {
+            transport.send(message);
+            sent.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Could not send the cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the evictions received from another replica to the local cache.
+     *
+     * @param message the evictions.
+     */
+    public void receive(CacheInvalidationMessage message) {
+        if (origin.equals(message.getOrigin())) {
+            return;
+        }
+        log.debug("Applying cache invalidations: {}", message);
+        received.increment();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        evict(message.getEntities(), cache::evictEntityData);
+        evict(message.getCollections(), cache::evictCollectionData);
+    }
+
+    private void evict(Map<String, Set<Long>> evictions, BiConsumer<String, Long> eviction) {
+        evictions.forEach(
+            (name, ids) -> {
+                for (Long id : ids) {
+                    try {
+                        eviction.accept(name, id);
+                    } catch (RuntimeException e) {
+                        // the entity or the collection is not mapped by this version of the service
+                        log.debug("Could not evict {}#{} from the cache: {}", name, id, e.getMessage());
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Get the evictions of the current transaction.
+     *
+     * @return the evictions, {@code null} outside a transaction.
+     */
+    private CacheInvalidationMessage getTransactionMessage() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        TransactionEvictions evictions = (TransactionEvictions) TransactionSynchronizationManager.getResource(this);
+        if (evictions == null) {
+            evictions = new TransactionEvictions();
+            TransactionSynchronizationManager.bindResource(this, evictions);
+            TransactionSynchronizationManager.registerSynchronization(evictions);
+        }
+        return evictions.message;
+    }
+
+    private synchronized void enqueue(CacheInvalidationMessage message) {
+        pending.merge(message);
+    }
+
+    /**
+     * The evictions of a transaction, queued for sending when the transaction commits.
+     */
+    private final class TransactionEvictions implements TransactionSynchronization {
+
+        private final CacheInvalidationMessage message = new CacheInvalidationMessage();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+            if (status == STATUS_COMMITTED) {
+                enqueue(message);
+            }
+        }
+    }
+}
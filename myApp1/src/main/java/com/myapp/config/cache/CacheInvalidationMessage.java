@@ -0,0 +1,75 @@
+package com.myapp.config.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Second-level cache evictions sent to the other replicas: the ids of the evicted entities by entity name, and the
+ * owner ids of the evicted collections by collection role.
+ */
+public class CacheInvalidationMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String origin;
+
+    private Map<String, Set<Long>> entities = new HashMap<>();
+
+    private Map<String, Set<Long>> collections = new HashMap<>();
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public Map<String, Set<Long>> getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Map<String, Set<Long>> entities) {
+        this.entities = entities;
+    }
+
+    public Map<String, Set<Long>> getCollections() {
+        return collections;
+    }
+
+    public void setCollections(Map<String, Set<Long>> collections) {
+        this.collections = collections;
+    }
+
+    public void addEntity(String entityName, Long id) {
+        entities.computeIfAbsent(entityName, name -> new HashSet<>()).add(id);
+    }
+
+    public void addCollection(String role, Long ownerId) {
+        collections.computeIfAbsent(role, name -> new HashSet<>()).add(ownerId);
+    }
+
+    /**
+     * Add the evictions of another message to this one, each eviction being kept once.
+     *
+     * @param other the message to add.
+     */
+    public void merge(CacheInvalidationMessage other) {
+        other.entities.forEach((entityName, ids) -> entities.computeIfAbsent(entityName, name -> new HashSet<>()).addAll(ids));
+        other.collections.forEach((role, ownerIds) -> collections.computeIfAbsent(role, name -> new HashSet<>()).addAll(ownerIds));
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return entities.isEmpty() && collections.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationMessage{" + "origin='" + origin + "'" + ", entities=" + entities + ", collections=" + collections + "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.myapp.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries the second-level cache evictions between the replicas of this service.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Send evictions to the other replicas.
+     *
+     * @param message the evictions.
+     */
+    void send(CacheInvalidationMessage message);
+
+    /**
+     * Set the listener of the evictions received from the other replicas.
+     *
+     * @param listener the listener.
+     */
+    void setListener(Consumer<CacheInvalidationMessage> listener);
+}
@@ -0,0 +1,39 @@
+package com.myapp.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Carries the evictions between the transports of the same JVM, synchronously, for tests and single-instance setups.
+ */
+public class InProcessCacheInvalidationTransport implements CacheInvalidationTransport, DisposableBean {
+
+    private static final List<InProcessCacheInvalidationTransport> transports = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<CacheInvalidationMessage> listener = message -> {};
+
+    public InProcessCacheInvalidationTransport() {
+        transports.add(this);
+    }
+
+    @Override
+    public void send(CacheInvalidationMessage message) {
+        for (InProcessCacheInvalidationTransport transport : transports) {
+            if (transport != this) {
+                transport.listener.accept(message);
+            }
+        }
+    }
+
+    @Override
+    public void setListener(Consumer<CacheInvalidationMessage> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void destroy() {
+        transports.remove(this);
+    }
+}
@@ -19,7 +19,15 @@ public class A implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "aIdGenerator")
+    @TableGenerator(
+        name = "aIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "a",
+        allocationSize = 50
+    )
     private Long id;
 
     @OneToMany(mappedBy = "a")
@@ -17,7 +17,15 @@ public class B implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bIdGenerator")
+    @TableGenerator(
+        name = "bIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "b",
+        allocationSize = 50
+    )
     private Long id;
 
     @ManyToOne
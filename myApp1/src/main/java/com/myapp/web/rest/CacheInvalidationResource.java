@@ -0,0 +1,39 @@
+package com.myapp.web.rest;
+
+import com.myapp.config.cache.CacheInvalidationMessage;
+import com.myapp.config.cache.HttpCacheInvalidationTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller receiving the second-level cache evictions of the other replicas.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "http", matchIfMissing = true)
+public class CacheInvalidationResource {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationResource.class);
+
+    private final HttpCacheInvalidationTransport httpCacheInvalidationTransport;
+
+    public CacheInvalidationResource(HttpCacheInvalidationTransport httpCacheInvalidationTransport) {
+        this.httpCacheInvalidationTransport = httpCacheInvalidationTransport;
+    }
+
+    /**
+     * {@code POST  /admin/cache-invalidations} : Apply the cache evictions of another replica.
+     *
+     * @param message the evictions.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/cache-invalidations")
+    public ResponseEntity<Void> applyCacheInvalidations(@RequestBody CacheInvalidationMessage message) {
+        log.debug("REST request to apply the cache invalidations of {}", message.getOrigin());
+        httpCacheInvalidationTransport.receive(message);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.myapp.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class LoggingAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoggingAspect loggingAspect;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setup() throws Exception {
+        loggingAspect = new LoggingAspect(new MockEnvironment(), new ApplicationProperties(), meterRegistry);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod("find"));
+        when(signature.getDeclaringTypeName()).thenReturn(SampleService.class.getName());
+        when(signature.getDeclaringType()).thenReturn(SampleService.class);
+        when(signature.getName()).thenReturn("find");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+    }
+
+    @Test
+    void shouldTimeSuccessfulCall() throws Throwable {
+        when(joinPoint.proceed())
+            .thenAnswer(
+                invocation -> {
+                    Thread.sleep(100);
+                    return "value";
+                }
+            );
+
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("value");
+
+        Timer timer = timer("success", "none");
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldRecordErrorWithExceptionType() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failure"));
+
+        assertThatThrownBy(() -> loggingAspect.logAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("error", "IllegalStateException").count()).isEqualTo(1);
+        assertThat(timer("success", "none").count()).isZero();
+    }
+
+    private Timer timer(String outcome, String exception) {
+        return meterRegistry
+            .get("method.timed")
+            .tag("class", "SampleService")
+            .tag("method", "find")
+            .tag("outcome", outcome)
+            .tag("exception", exception)
+            .timer();
+    }
+
+    static class SampleService {
+
+        public String find() {
+            return "value";
+        }
+    }
+}
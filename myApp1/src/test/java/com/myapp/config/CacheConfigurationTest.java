@@ -0,0 +1,156 @@
+package com.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+import javax.cache.Caching;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the tiers built by {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private static final String CACHE_NAME = com.myapp.domain.B.class.getName();
+
+    private final EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+        EhcacheCachingProvider.class.getName()
+    );
+
+    @TempDir
+    Path diskPath;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void shouldOnlyHaveAHeapTierOfJHipsterMaxEntriesByDefault() {
+        ResourcePools resourcePools = createResourcePools(CACHE_NAME);
+
+        assertThat(resourcePools.getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        SizedResourcePool heap = resourcePools.getPoolForResource(ResourceType.Core.HEAP);
+        assertThat(heap.getSize()).isEqualTo(100);
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+    }
+
+    @Test
+    void shouldBuildTheConfiguredTiers() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(1000L);
+        region.setOffHeapSizeInMb(16);
+        region.setDiskSizeInMb(32);
+        applicationProperties.getCache().getRegions().put(CACHE_NAME, region);
+        applicationProperties.getCache().setDiskPath(diskPath.toString());
+
+        ResourcePools resourcePools = createResourcePools(CACHE_NAME);
+
+        assertThat(resourcePools.getResourceTypeSet())
+            .containsExactlyInAnyOrder(ResourceType.Core.HEAP, ResourceType.Core.OFFHEAP, ResourceType.Core.DISK);
+        assertThat(resourcePools.<SizedResourcePool>getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(1000);
+        SizedResourcePool offHeap = resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(offHeap.getSize()).isEqualTo(16);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.MB);
+        SizedResourcePool disk = resourcePools.getPoolForResource(ResourceType.Core.DISK);
+        assertThat(disk.getSize()).isEqualTo(32);
+        assertThat(disk.isPersistent()).isFalse();
+        // the other regions keep the default tiers
+        assertThat(createResourcePools("other").getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+    }
+
+    @Test
+    void shouldNotConfigurePersistenceWithoutDiskTier() {
+        applicationProperties.getCache().setDiskPath("target/ehcache");
+
+        assertThat(getDiskDirectory()).isEmpty();
+    }
+
+    @Test
+    void shouldUseTheConfiguredDiskPath() {
+        addDiskRegion(true);
+        applicationProperties.getCache().setDiskPath("target/ehcache");
+
+        assertThat(getDiskDirectory()).contains(new File("target/ehcache"));
+    }
+
+    @Test
+    void shouldUseADirectoryPerInstanceWithoutDiskPath() {
+        addDiskRegion(false);
+
+        Optional<File> directory = getDiskDirectory();
+        Optional<File> otherInstanceDirectory = getDiskDirectory();
+
+        assertThat(directory).isPresent();
+        assertThat(otherInstanceDirectory).isPresent().isNotEqualTo(directory);
+        assertThat(directory.get()).isDirectory();
+    }
+
+    @Test
+    void shouldRequireTheDiskPathOfPersistentDiskTiers() {
+        addDiskRegion(true);
+
+        assertThatThrownBy(this::getDiskDirectory).isInstanceOf(IllegalStateException.class).hasMessageContaining("disk-path");
+    }
+
+    private void addDiskRegion(boolean persistent) {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setDiskSizeInMb(1024);
+        region.setDiskPersistent(persistent);
+        applicationProperties.getCache().getRegions().put(CACHE_NAME, region);
+    }
+
+    /**
+     * Read the tiers back from a cache created with the configuration of the given cache name.
+     */
+    private ResourcePools createResourcePools(String cacheName) {
+        CacheConfiguration cacheConfiguration = createCacheConfiguration();
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(
+            URI.create(getClass().getName()),
+            cacheConfiguration.createEhcacheConfiguration(provider)
+        );
+        try {
+            Eh107Configuration<?, ?> configuration = cacheManager
+                .createCache(cacheName, cacheConfiguration.createJCacheConfiguration(cacheName))
+                .getConfiguration(Eh107Configuration.class);
+            return configuration.unwrap(org.ehcache.config.CacheConfiguration.class).getResourcePools();
+        } finally {
+            cacheManager.close();
+        }
+    }
+
+    private Optional<File> getDiskDirectory() {
+        return createCacheConfiguration()
+            .createEhcacheConfiguration(provider)
+            .getServiceCreationConfigurations()
+            .stream()
+            .filter(DefaultPersistenceConfiguration.class::isInstance)
+            .map(service -> ((DefaultPersistenceConfiguration) service).getRootDirectory())
+            .findFirst();
+    }
+
+    private CacheConfiguration createCacheConfiguration() {
+        return new CacheConfiguration(jHipsterProperties, applicationProperties);
+    }
+}
@@ -0,0 +1,140 @@
+package com.myapp.config.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link CacheInvalidationListener}.
+ */
+class CacheInvalidationListenerTest {
+
+    private static final String ENTITY_NAME = "com.myapp.domain.Entity";
+
+    private static final String COLLECTION_ROLE = "com.myapp.domain.Entity.children";
+
+    private SessionFactoryImplementor sessionFactory;
+
+    private EventListenerRegistry registry;
+
+    private CacheInvalidationBus bus;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setup() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        sessionFactory = mock(SessionFactoryImplementor.class);
+        ServiceRegistryImplementor serviceRegistry = mock(ServiceRegistryImplementor.class);
+        registry = mock(EventListenerRegistry.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.getService(EventListenerRegistry.class)).thenReturn(registry);
+        bus = mock(CacheInvalidationBus.class);
+        listener = new CacheInvalidationListener(entityManagerFactory, bus);
+    }
+
+    @Test
+    void shouldRegisterOnTheSessionFactory() {
+        verify(registry).appendListeners(EventType.POST_UPDATE, listener);
+        verify(registry).appendListeners(EventType.POST_DELETE, listener);
+        verify(registry).appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        verify(registry).appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        verify(registry).appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    @Test
+    void shouldInvalidateUpdatedCachedEntity() {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        EntityPersister persister = mockPersister(true);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(1L);
+
+        listener.onPostUpdate(event);
+
+        verify(bus).invalidateEntity(ENTITY_NAME, 1L);
+    }
+
+    @Test
+    void shouldInvalidateDeletedCachedEntity() {
+        PostDeleteEvent event = mock(PostDeleteEvent.class);
+        EntityPersister persister = mockPersister(true);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(2L);
+
+        listener.onPostDelete(event);
+
+        verify(bus).invalidateEntity(ENTITY_NAME, 2L);
+    }
+
+    @Test
+    void shouldIgnoreEntityNotCached() {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        EntityPersister persister = mockPersister(false);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(1L);
+
+        listener.onPostUpdate(event);
+
+        verify(bus, never()).invalidateEntity(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldInvalidateUpdatedCachedCollection() {
+        PostCollectionUpdateEvent event = mockCollectionEvent(true);
+
+        listener.onPostUpdateCollection(event);
+
+        verify(bus).invalidateCollection(COLLECTION_ROLE, 1L);
+    }
+
+    @Test
+    void shouldIgnoreCollectionNotCached() {
+        PostCollectionUpdateEvent event = mockCollectionEvent(false);
+
+        listener.onPostUpdateCollection(event);
+
+        verify(bus, never()).invalidateCollection(any(), eq(1L));
+    }
+
+    private EntityPersister mockPersister(boolean cached) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.canWriteToCache()).thenReturn(cached);
+        when(persister.getEntityName()).thenReturn(ENTITY_NAME);
+        return persister;
+    }
+
+    private PostCollectionUpdateEvent mockCollectionEvent(boolean cached) {
+        PersistentCollection collection = mock(PersistentCollection.class);
+        when(collection.getRole()).thenReturn(COLLECTION_ROLE);
+        PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+        when(event.getCollection()).thenReturn(collection);
+        when(event.getAffectedOwnerIdOrNull()).thenReturn(1L);
+        MetamodelImplementor metamodel = mock(MetamodelImplementor.class);
+        CollectionPersister collectionPersister = mock(CollectionPersister.class);
+        when(sessionFactory.getMetamodel()).thenReturn(metamodel);
+        when(metamodel.collectionPersister(COLLECTION_ROLE)).thenReturn(collectionPersister);
+        when(collectionPersister.hasCache()).thenReturn(cached);
+        return event;
+    }
+}
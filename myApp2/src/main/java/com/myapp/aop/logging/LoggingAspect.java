@@ -1,12 +1,21 @@
 package com.myapp.aop.logging;
 
+import com.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
@@ -16,15 +25,33 @@ import tech.jhipster.config.JHipsterConstants;
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile, or when {@code application.logging-aspect.enabled} is set.
+ * <p>
+ * The execution time of each method is recorded in the {@code method.timed} timer, tagged with its outcome like in the
+ * gateway. Arguments and results are logged at debug level for a sample of the calls, set by
+ * {@code application.logging-aspect.argument-sample-rate}.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    private static final String METRIC_NAME = "method.timed";
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_ERROR = "error";
+
+    private final Map<Method, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private final boolean development;
+
+    private final double argumentSampleRate;
+
+    private final MeterRegistry meterRegistry;
+
+    public LoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.development = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        this.argumentSampleRate = applicationProperties.getLoggingAspect().getArgumentSampleRate();
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -47,6 +74,21 @@ public class LoggingAspect {
         // Method is empty as this is just a Pointcut, the implementations are in the advices.
     }
 
+    /**
+     * Retrieves the {@link Logger} and the timers associated to the given {@link JoinPoint}, created once per method.
+     *
+     * @param joinPoint join point we want the logger and the timers for.
+     * @return {@link MethodMetrics} associated to the given {@link JoinPoint}.
+     */
+    private MethodMetrics metrics(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMetrics metrics = methods.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method, key -> new MethodMetrics(joinPoint));
+        }
+        return metrics;
+    }
+
     /**
      * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
      *
@@ -54,7 +96,7 @@ public class LoggingAspect {
      * @return {@link Logger} associated to the given {@link JoinPoint}.
      */
     private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        return metrics(joinPoint).log;
     }
 
     /**
@@ -65,7 +107,7 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
+        if (development) {
             logger(joinPoint)
                 .error(
                     "Exception in {}() with cause = \'{}\' and exception = \'{}\'",
@@ -85,7 +127,7 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that times a method, and logs when it is entered and exited.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -93,19 +135,74 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
+        MethodMetrics metrics = metrics(joinPoint);
+        Logger log = metrics.log;
+        boolean sampled = log.isDebugEnabled() && isSampled();
+        if (sampled) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
+        long start = System.nanoTime();
+        Object result;
         try {
-            Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
-            }
-            return result;
+            result = joinPoint.proceed();
         } catch (IllegalArgumentException e) {
+            metrics.record(start, e);
             log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
             throw e;
+        } catch (Throwable e) {
+            metrics.record(start, e);
+            throw e;
+        }
+        metrics.record(start, null);
+        if (sampled) {
+            log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+        }
+        return result;
+    }
+
+    private boolean isSampled() {
+        return argumentSampleRate >= 1 || (argumentSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < argumentSampleRate);
+    }
+
+    /**
+     * The logger and the timers of a method, tagged with the outcome of the call: {@code success} or {@code error}. The
+     * calls are synchronous, so unlike in the gateway they are never cancelled. The timer of each exception type is
+     * created on its first occurrence.
+     */
+    private final class MethodMetrics {
+
+        private final Logger log;
+
+        private final String className;
+
+        private final String methodName;
+
+        private final Timer timer;
+
+        private final Map<Class<?>, Timer> exceptionTimers = new ConcurrentHashMap<>();
+
+        private MethodMetrics(JoinPoint joinPoint) {
+            this.log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+            this.className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            this.methodName = joinPoint.getSignature().getName();
+            this.timer = createTimer(OUTCOME_SUCCESS, "none");
+        }
+
+        private void record(long start, Throwable error) {
+            Timer outcome = error == null
+                ? timer
+                : exceptionTimers.computeIfAbsent(error.getClass(), type -> createTimer(OUTCOME_ERROR, type.getSimpleName()));
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private Timer createTimer(String outcome, String exception) {
+            return Timer
+                .builder(METRIC_NAME)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
         }
     }
 }
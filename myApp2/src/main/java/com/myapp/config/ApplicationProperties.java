@@ -1,5 +1,7 @@
 package com.myapp.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +11,202 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final Cache cache = new Cache();
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class LoggingAspect {
+
+        /**
+         * Time the repositories, services and REST endpoints outside the "dev" profile too.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the calls whose arguments and result are logged, when their logger is at debug level.
+         */
+        private double argumentSampleRate = 1.0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getArgumentSampleRate() {
+            return argumentSampleRate;
+        }
+
+        public void setArgumentSampleRate(double argumentSampleRate) {
+            this.argumentSampleRate = argumentSampleRate;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Record the hits, misses and evictions of each region, exported with the other cache metrics.
+         */
+        private boolean statistics = true;
+
+        /**
+         * Directory of the disk tiers, which must not be shared with another instance. Required by persistent disk
+         * tiers, a new temporary directory is used otherwise.
+         */
+        private String diskPath;
+
+        /**
+         * Tiers of the regions, by cache name, the other regions only have a heap tier.
+         */
+        private Map<String, Region> regions = new HashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public boolean isStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(boolean statistics) {
+            this.statistics = statistics;
+        }
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Region {
+
+            /**
+             * Defaults to {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long heapEntries;
+
+            /**
+             * Defaults to {@code jhipster.cache.ehcache.time-to-live-seconds}.
+             */
+            private Long timeToLiveSeconds;
+
+            /**
+             * Size of the off-heap tier, none if {@code 0}, taken from the direct memory of the JVM.
+             */
+            private long offHeapSizeInMb = 0;
+
+            /**
+             * Size of the disk tier, none if {@code 0}, which must be larger than the off-heap tier.
+             */
+            private long diskSizeInMb = 0;
+
+            /**
+             * Keep the disk tier across restarts, only safe for data which is not changed while the instance is down.
+             */
+            private boolean diskPersistent = false;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getOffHeapSizeInMb() {
+                return offHeapSizeInMb;
+            }
+
+            public void setOffHeapSizeInMb(long offHeapSizeInMb) {
+                this.offHeapSizeInMb = offHeapSizeInMb;
+            }
+
+            public long getDiskSizeInMb() {
+                return diskSizeInMb;
+            }
+
+            public void setDiskSizeInMb(long diskSizeInMb) {
+                this.diskSizeInMb = diskSizeInMb;
+            }
+
+            public boolean isDiskPersistent() {
+                return diskPersistent;
+            }
+
+            public void setDiskPersistent(boolean diskPersistent) {
+                this.diskPersistent = diskPersistent;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * How the evictions are sent to the other replicas: {@code http}, {@code in-process} or {@code none}.
+             */
+            private String transport = "http";
+
+            /**
+             * Delay during which the evictions of the committed transactions are gathered into a single message.
+             */
+            private long debounceInMillis = 100;
+
+            private int timeoutInMillis = 2000;
+
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            public long getDebounceInMillis() {
+                return debounceInMillis;
+            }
+
+            public void setDebounceInMillis(long debounceInMillis) {
+                this.debounceInMillis = debounceInMillis;
+            }
+
+            public int getTimeoutInMillis() {
+                return timeoutInMillis;
+            }
+
+            public void setTimeoutInMillis(int timeoutInMillis) {
+                this.timeoutInMillis = timeoutInMillis;
+            }
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.myapp.config;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
@@ -18,24 +27,27 @@ import org.springframework.context.annotation.*;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
+/**
+ * Configures the Ehcache regions of the Hibernate second-level cache.
+ * <p>
+ * Each region has a heap tier, and optionally an off-heap and a disk tier, configured by cache name in
+ * {@code application.cache.regions}. The JCache manager is created here rather than by Spring Boot, because the disk
+ * tiers need a persistence directory, which can only be given when the manager is created.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final ApplicationProperties.Cache.Region DEFAULT_REGION = new ApplicationProperties.Cache.Region();
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
     }
 
     @Bean
@@ -44,11 +56,38 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer() {
-        return cm -> {
-            createCache(cm, com.myapp.domain.C.class.getName());
-            // jhipster-needle-ehcache-add-entry
-        };
+    public javax.cache.CacheManager jCacheCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        javax.cache.CacheManager cm = provider.getCacheManager(provider.getDefaultURI(), createEhcacheConfiguration(provider));
+        createCache(cm, com.myapp.domain.C.class.getName());
+        // jhipster-needle-ehcache-add-entry
+        return cm;
+    }
+
+    org.ehcache.config.Configuration createEhcacheConfiguration(EhcacheCachingProvider provider) {
+        boolean diskTier = cacheProperties.getRegions().values().stream().anyMatch(region -> region.getDiskSizeInMb() > 0);
+        if (!diskTier) {
+            return new DefaultConfiguration(provider.getDefaultClassLoader());
+        }
+        return new DefaultConfiguration(provider.getDefaultClassLoader(), new DefaultPersistenceConfiguration(getDiskDirectory()));
+    }
+
+    /**
+     * The directory of the disk tiers: {@code application.cache.disk-path}, required by persistent disk tiers so that
+     * they are found again after a restart, or else a new temporary directory, never shared with another instance.
+     */
+    private File getDiskDirectory() {
+        if (cacheProperties.getDiskPath() != null) {
+            return new File(cacheProperties.getDiskPath());
+        }
+        if (cacheProperties.getRegions().values().stream().anyMatch(region -> region.getDiskSizeInMb() > 0 && region.isDiskPersistent())) {
+            throw new IllegalStateException("application.cache.disk-path must be set to use a persistent disk tier");
+        }
+        try {
+            return Files.createTempDirectory("ehcache").toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the directory of the disk tiers", e);
+        }
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
@@ -56,8 +95,31 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, createJCacheConfiguration(cacheName));
+        }
+        if (cacheProperties.isStatistics()) {
+            cm.enableStatistics(cacheName, true);
+        }
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> createJCacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().getOrDefault(cacheName, DEFAULT_REGION);
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES);
+        if (region.getOffHeapSizeInMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSizeInMb(), MemoryUnit.MB);
+        }
+        if (region.getDiskSizeInMb() > 0) {
+            resourcePools = resourcePools.disk(region.getDiskSizeInMb(), MemoryUnit.MB, region.isDiskPersistent());
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
+                .build()
+        );
     }
 
     @Autowired(required = false)
@@ -0,0 +1,97 @@
+package com.myapp.config.cache;
+
+import java.io.Serializable;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hands the updates and deletions of cached entities and collections over to the {@link CacheInvalidationBus}.
+ * <p>
+ * Inserted entities are not cached by the other replicas yet, so they are not sent.
+ */
+public class CacheInvalidationListener
+    implements
+        PostUpdateEventListener,
+        PostDeleteEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CacheInvalidationBus cacheInvalidationBus;
+
+    private final transient SessionFactoryImplementor sessionFactory;
+
+    public CacheInvalidationListener(EntityManagerFactory entityManagerFactory, CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidateEntity(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidateEntity(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        invalidateCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        invalidateCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        invalidateCollection(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidateEntity(EntityPersister persister, Serializable id) {
+        if (persister.canWriteToCache() && id instanceof Long) {
+            cacheInvalidationBus.invalidateEntity(persister.getEntityName(), (Long) id);
+        }
+    }
+
+    private void invalidateCollection(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        Serializable ownerId = event.getAffectedOwnerIdOrNull();
+        if (role == null || !(ownerId instanceof Long)) {
+            return;
+        }
+        if (sessionFactory.getMetamodel().collectionPersister(role).hasCache()) {
+            cacheInvalidationBus.invalidateCollection(role, (Long) ownerId);
+        }
+    }
+}
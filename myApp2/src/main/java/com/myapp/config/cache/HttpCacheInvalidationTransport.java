@@ -0,0 +1,138 @@
+package com.myapp.config.cache;
+
+import com.myapp.config.ApplicationProperties;
+import com.myapp.security.AuthoritiesConstants;
+import com.myapp.security.jwt.TokenProvider;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Sends the evictions to the other replicas registered in the service registry, with a POST on
+ * {@value #PATH} authenticated by a token of this service.
+ * <p>
+ * The token only grants {@link AuthoritiesConstants#CACHE_INVALIDATION}, and is valid for
+ * {@value #TOKEN_VALIDITY_IN_MILLIS} milliseconds: it is reused until half of its validity has passed. The requests are
+ * sent concurrently on the given executor, so that a slow replica does not hold the caller.
+ */
+public class HttpCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    public static final String PATH = "/api/admin/cache-invalidations";
+
+    private static final long TOKEN_VALIDITY_IN_MILLIS = 60_000;
+
+    private final Logger log = LoggerFactory.getLogger(HttpCacheInvalidationTransport.class);
+
+    private final DiscoveryClient discoveryClient;
+
+    private final Registration registration;
+
+    private final TokenProvider tokenProvider;
+
+    private final RestTemplate restTemplate;
+
+    private final Executor executor;
+
+    private final String serviceId;
+
+    private volatile String token;
+
+    private volatile long tokenRenewedAt;
+
+    private volatile Consumer<CacheInvalidationMessage> listener = message -> {};
+
+    public HttpCacheInvalidationTransport(
+        DiscoveryClient discoveryClient,
+        Registration registration,
+        TokenProvider tokenProvider,
+        RestTemplateBuilder restTemplateBuilder,
+        ApplicationProperties applicationProperties,
+        Executor executor,
+        String serviceId
+    ) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.tokenProvider = tokenProvider;
+        Duration timeout = Duration.ofMillis(applicationProperties.getCache().getInvalidation().getTimeoutInMillis());
+        this.restTemplate = restTemplateBuilder.setConnectTimeout(timeout).setReadTimeout(timeout).build();
+        this.executor = executor;
+        this.serviceId = registration != null ? registration.getServiceId() : serviceId;
+    }
+
+    @Override
+    public void send(CacheInvalidationMessage message) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (instances.isEmpty()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(getToken());
+        HttpEntity<CacheInvalidationMessage> request = new HttpEntity<>(message, headers);
+        for (ServiceInstance instance : instances) {
+            if (!isThisInstance(instance)) {
+                CompletableFuture.runAsync(() -> post(instance, request), executor);
+            }
+        }
+    }
+
+    private void post(ServiceInstance instance, HttpEntity<CacheInvalidationMessage> request) {
+        try {
+            restTemplate.postForEntity(instance.getUri().resolve(PATH), request, Void.class);
+        } catch (RestClientException e) {
+            // the entries stay in the cache of the other replica until they expire
+            log.warn("Could not send the cache invalidations to {}: {}", instance.getUri(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void setListener(Consumer<CacheInvalidationMessage> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Apply the evictions received from another replica.
+     *
+     * @param message the evictions.
+     */
+    public void receive(CacheInvalidationMessage message) {
+        listener.accept(message);
+    }
+
+    private boolean isThisInstance(ServiceInstance instance) {
+        String instanceId = registration != null ? registration.getInstanceId() : null;
+        return instanceId != null && instanceId.equals(instance.getInstanceId());
+    }
+
+    private String getToken() {
+        long now = System.currentTimeMillis();
+        if (token == null || now - tokenRenewedAt > TOKEN_VALIDITY_IN_MILLIS / 2) {
+            token = tokenProvider.createToken(createAuthentication(), TOKEN_VALIDITY_IN_MILLIS);
+            tokenRenewedAt = now;
+        }
+        return token;
+    }
+
+    private Authentication createAuthentication() {
+        return new UsernamePasswordAuthenticationToken(
+            serviceId,
+            null,
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.CACHE_INVALIDATION))
+        );
+    }
+}
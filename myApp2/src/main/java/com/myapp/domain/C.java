@@ -16,7 +16,15 @@ public class C implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cIdGenerator")
+    @TableGenerator(
+        name = "cIdGenerator",
+        table = "jhi_id_sequence",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "c",
+        allocationSize = 50
+    )
     private Long id;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
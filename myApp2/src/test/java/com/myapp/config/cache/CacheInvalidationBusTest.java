@@ -0,0 +1,126 @@
+package com.myapp.config.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.Serializable;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Test class for the {@link CacheInvalidationBus}, with two replicas connected by the in-process transport.
+ */
+class CacheInvalidationBusTest {
+
+    private static final String ENTITY_NAME = "com.myapp.domain.Entity";
+
+    private static final String COLLECTION_ROLE = "com.myapp.domain.Entity.children";
+
+    private InProcessCacheInvalidationTransport transport;
+
+    private InProcessCacheInvalidationTransport otherTransport;
+
+    private Cache cache;
+
+    private Cache otherCache;
+
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setup() {
+        transport = new InProcessCacheInvalidationTransport();
+        otherTransport = new InProcessCacheInvalidationTransport();
+        cache = mock(Cache.class);
+        otherCache = mock(Cache.class);
+        bus = new CacheInvalidationBus(mockEntityManagerFactory(cache), transport, new SimpleMeterRegistry());
+        new CacheInvalidationBus(mockEntityManagerFactory(otherCache), otherTransport, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void cleanup() {
+        transport.destroy();
+        otherTransport.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictFromTheOtherReplicas() {
+        bus.invalidateEntity(ENTITY_NAME, 1L);
+        bus.invalidateCollection(COLLECTION_ROLE, 1L);
+
+        bus.flush();
+
+        verify(otherCache).evictEntityData(ENTITY_NAME, (Serializable) 1L);
+        verify(otherCache).evictCollectionData(COLLECTION_ROLE, (Serializable) 1L);
+        verify(cache, never()).evictEntityData(anyString(), any(Serializable.class));
+    }
+
+    @Test
+    void shouldSendTheEvictionsOfATransactionOnceWhenItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidateEntity(ENTITY_NAME, 1L);
+        bus.invalidateEntity(ENTITY_NAME, 1L);
+        bus.invalidateEntity(ENTITY_NAME, 2L);
+
+        bus.flush();
+        verify(otherCache, never()).evictEntityData(anyString(), any(Serializable.class));
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        bus.flush();
+
+        verify(otherCache, times(1)).evictEntityData(ENTITY_NAME, (Serializable) 1L);
+        verify(otherCache, times(1)).evictEntityData(ENTITY_NAME, (Serializable) 2L);
+    }
+
+    @Test
+    void shouldNotSendTheEvictionsOfARolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidateEntity(ENTITY_NAME, 1L);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        bus.flush();
+
+        verify(otherCache, never()).evictEntityData(anyString(), any(Serializable.class));
+    }
+
+    @Test
+    void shouldKeepApplyingEvictionsAfterAFailedOne() {
+        doThrow(new IllegalArgumentException("Unknown entity")).when(otherCache).evictEntityData(ENTITY_NAME, (Serializable) 1L);
+        bus.invalidateEntity(ENTITY_NAME, 1L);
+        bus.invalidateCollection(COLLECTION_ROLE, 1L);
+
+        bus.flush();
+
+        verify(otherCache).evictCollectionData(COLLECTION_ROLE, (Serializable) 1L);
+    }
+
+    private void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static EntityManagerFactory mockEntityManagerFactory(Cache cache) {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        return entityManagerFactory;
+    }
+}
@@ -0,0 +1,81 @@
+package com.myapp.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.myapp.IntegrationTest;
+import com.myapp.config.cache.CacheInvalidationMessage;
+import com.myapp.security.AuthoritiesConstants;
+import com.myapp.security.jwt.TokenProvider;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link CacheInvalidationResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class CacheInvalidationResourceIT {
+
+    private static final String API_URL = "/api/admin/cache-invalidations";
+
+    @Autowired
+    private MockMvc restCacheInvalidationMockMvc;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.CACHE_INVALIDATION)
+    void applyCacheInvalidations() throws Exception {
+        restCacheInvalidationMockMvc
+            .perform(post(API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createMessage())))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void applyCacheInvalidationsWithReplicaToken() throws Exception {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.CACHE_INVALIDATION));
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("myapp", null, authorities), 60_000);
+
+        restCacheInvalidationMockMvc
+            .perform(
+                post(API_URL)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(createMessage()))
+            )
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void applyCacheInvalidationsAsAdminIsForbidden() throws Exception {
+        restCacheInvalidationMockMvc
+            .perform(post(API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createMessage())))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser
+    void applyCacheInvalidationsAsUserIsForbidden() throws Exception {
+        restCacheInvalidationMockMvc
+            .perform(post(API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createMessage())))
+            .andExpect(status().isForbidden());
+    }
+
+    private static CacheInvalidationMessage createMessage() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage();
+        message.setOrigin("other-replica");
+        message.addEntity("com.myapp.domain.C", 1L);
+        return message;
+    }
+}